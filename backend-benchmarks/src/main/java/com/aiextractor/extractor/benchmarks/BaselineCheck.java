@@ -0,0 +1,68 @@
+package com.aiextractor.extractor.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file against a checked-in baseline and fails on regressions.
+ * Time (primary score) and normalized allocation (gc.alloc.rate.norm) are both checked.
+ * Usage: java -cp target/benchmarks.jar com.aiextractor.extractor.benchmarks.BaselineCheck
+ *        baselines/baseline.json target/jmh-result.json [allowed-regression-percent]
+ */
+public class BaselineCheck {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCheck <baseline.json> <result.json> [allowed-regression-percent]");
+            System.exit(2);
+        }
+        double allowed = args.length > 2 ? Double.parseDouble(args[2]) : 15.0;
+        Map<String, JsonNode> baseline = index(args[0]);
+        Map<String, JsonNode> current = index(args[1]);
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %8s %14s %14s %8s%n", "benchmark", "base", "now", "change", "base B/op", "now B/op", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.printf("%-90s (new, no baseline)%n", entry.getKey());
+                continue;
+            }
+            double baseScore = base.path("primaryMetric").path("score").asDouble();
+            double nowScore = entry.getValue().path("primaryMetric").path("score").asDouble();
+            double baseAlloc = base.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score").asDouble(Double.NaN);
+            double nowAlloc = entry.getValue().path("secondaryMetrics").path(ALLOCATION_METRIC).path("score").asDouble(Double.NaN);
+            double timeDelta = percentChange(baseScore, nowScore);
+            double allocDelta = percentChange(baseAlloc, nowAlloc);
+            boolean regressed = timeDelta > allowed || allocDelta > allowed;
+            if (regressed) regressions++;
+            System.out.printf("%-90s %14.2f %14.2f %+7.1f%% %14.0f %14.0f %+7.1f%%%s%n", entry.getKey(),
+                    baseScore, nowScore, timeDelta, baseAlloc, nowAlloc, allocDelta, regressed ? "  REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, allowed);
+            System.exit(1);
+        }
+    }
+
+    // Helper: Key results by benchmark name plus parameters
+    private static Map<String, JsonNode> index(String file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(new File(file))) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText().replace("com.aiextractor.extractor.benchmarks.", ""));
+            result.path("params").fields().forEachRemaining(p -> key.append(' ').append(p.getKey()).append('=').append(p.getValue().asText()));
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double percentChange(double base, double now) {
+        if (Double.isNaN(base) || Double.isNaN(now) || base == 0) return 0;
+        return (now - base) / base * 100.0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.aiextractor.extractor.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Access to the saved HTML pages under src/main/resources/corpus.
+ */
+public class Corpus {
+    public static final String BASE_URI = "https://example.com/";
+
+    public static String load(String page) {
+        try (InputStream in = Corpus.class.getResourceAsStream("/corpus/" + page)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No corpus page " + page);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
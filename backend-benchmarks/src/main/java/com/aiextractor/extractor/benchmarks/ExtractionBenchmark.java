@@ -0,0 +1,45 @@
+package com.aiextractor.extractor.benchmarks;
+
+import com.aiextractor.extractor.utils.ContentDensityExtractor;
+import com.aiextractor.extractor.utils.JsoupUtils;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and main-content pruning of saved pages: parse only, then parse + each extraction engine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractionBenchmark {
+    @Param({"small/news-article.html", "small/blog-post.html", "huge/long-report.html", "nested/deep-nesting.html"})
+    public String page;
+
+    private String html;
+
+    @Setup
+    public void load() {
+        html = Corpus.load(page);
+    }
+
+    @Benchmark
+    public Document parse() {
+        return Jsoup.parse(html, Corpus.BASE_URI);
+    }
+
+    @Benchmark
+    public String densityEngine() {
+        return ContentDensityExtractor.extract(Jsoup.parse(html, Corpus.BASE_URI));
+    }
+
+    @Benchmark
+    public String legacyEngine() {
+        return JsoupUtils.extractLargestBlockText(Jsoup.parse(html, Corpus.BASE_URI));
+    }
+}
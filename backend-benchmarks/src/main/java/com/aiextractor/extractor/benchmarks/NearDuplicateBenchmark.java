@@ -0,0 +1,106 @@
+package com.aiextractor.extractor.benchmarks;
+
+import com.aiextractor.extractor.utils.ContentDensityExtractor;
+import com.aiextractor.extractor.utils.SimHash;
+import com.aiextractor.extractor.utils.SimHashIndex;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The near-duplicate index behind extractor.near-duplicates: fingerprinting one ~4 KB article,
+ * a lookup that finds a near-duplicate and one that finds none, against a linear scan of all
+ * fingerprints, and a full rebuild from precomputed fingerprints (startup rebuild time is this
+ * plus one fingerprint per stored article). Index memory per article is printed at setup.
+ * Unrelated articles have effectively random fingerprints, so the indexed ones are random longs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NearDuplicateBenchmark {
+    /** Indexed articles. */
+    @Param({"100000", "1000000"})
+    public int documents;
+
+    private static final int MAX_DISTANCE = 3;
+
+    private long[] fingerprints;
+    private SimHashIndex index;
+    private String article;
+    private int next;
+
+    @Setup
+    public void load() {
+        String[] words = ContentDensityExtractor.extract(Jsoup.parse(Corpus.load("huge/long-report.html"), Corpus.BASE_URI)).split("\\s+");
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder(4200);
+        while (sb.length() < 4000) sb.append(words[random.nextInt(words.length)]).append(' ');
+        article = sb.toString();
+        fingerprints = new long[documents];
+        for (int i = 0; i < documents; i++) fingerprints[i] = random.nextLong();
+        long before = usedHeap();
+        index = build();
+        long bytes = usedHeap() - before;
+        System.out.printf("%nNear-duplicate index, %d articles: %d bytes, %.1f bytes per article%n",
+                documents, bytes, (double) bytes / documents);
+    }
+
+    private SimHashIndex build() {
+        SimHashIndex built = new SimHashIndex(MAX_DISTANCE);
+        for (int i = 0; i < fingerprints.length; i++) built.put(i, fingerprints[i]);
+        return built;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Benchmark
+    public long fingerprint() {
+        return SimHash.fingerprint(article);
+    }
+
+    @Benchmark
+    public SimHashIndex.Match lookupNearDuplicate() {
+        // A stored fingerprint with three bits flipped
+        long fingerprint = fingerprints[next++ % documents] ^ 0x8000_0100_0000_0001L;
+        return index.nearest(fingerprint);
+    }
+
+    @Benchmark
+    public SimHashIndex.Match lookupMiss() {
+        return index.nearest(fingerprints[next++ % documents] ^ 0x00FF_00FF_00FF_00FFL);
+    }
+
+    @Benchmark
+    public long linearScan() {
+        // Baseline: compare against every fingerprint
+        long fingerprint = fingerprints[next++ % documents] ^ 0x8000_0100_0000_0001L;
+        long best = -1;
+        int bestDistance = MAX_DISTANCE + 1;
+        for (int i = 0; i < fingerprints.length; i++) {
+            int distance = Long.bitCount(fingerprints[i] ^ fingerprint);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public SimHashIndex rebuild() {
+        return build();
+    }
+}
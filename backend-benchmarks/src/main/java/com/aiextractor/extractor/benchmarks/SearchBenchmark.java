@@ -0,0 +1,122 @@
+package com.aiextractor.extractor.benchmarks;
+
+import com.aiextractor.extractor.utils.ContentDensityExtractor;
+import com.aiextractor.extractor.utils.ContentSearchIndex;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of GET /api/extracted?search= results: the Lucene index (ranked page, hit count and
+ * highlighted snippets) against the LIKE query Spring Data derives from
+ * findByUrlContainingIgnoreCaseOrContentContainingIgnoreCase (page query plus count query).
+ * The LIKE side runs on in-memory H2, which flatters it compared to PostgreSQL reading TEXT
+ * from disk; both scan every row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    /** Stored articles. */
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private static final int PAGE_SIZE = 10;
+    private static final String TERM = "reservoir";
+
+    private Connection connection;
+    private PreparedStatement pageQuery;
+    private PreparedStatement countQuery;
+    private ContentSearchIndex index;
+
+    @Setup
+    public void load() throws SQLException, IOException {
+        String[] words = ContentDensityExtractor.extract(Jsoup.parse(Corpus.load("huge/long-report.html"), Corpus.BASE_URI)).split("\\s+");
+        Random random = new Random(1);
+        connection = DriverManager.getConnection("jdbc:h2:mem:search;MODE=PostgreSQL");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table extracted_content (id bigint primary key, url varchar(255), content text, summary text)");
+        }
+        List<ContentSearchIndex.Entry> entries = new ArrayList<>(rows);
+        try (PreparedStatement insert = connection.prepareStatement("insert into extracted_content (id, url, content) values (?, ?, ?)")) {
+            for (int id = 1; id <= rows; id++) {
+                // ~4 KB articles; one in fifty mentions the search term
+                StringBuilder content = new StringBuilder(4200);
+                while (content.length() < 4000) {
+                    content.append(words[random.nextInt(words.length)]).append(' ');
+                }
+                if (id % 50 == 0) content.append(TERM).append(" levels fell.");
+                String url = "https://example.com/articles/" + id;
+                insert.setLong(1, id);
+                insert.setString(2, url);
+                insert.setString(3, content.toString());
+                insert.addBatch();
+                entries.add(new ContentSearchIndex.Entry(id, url, content.toString()));
+            }
+            insert.executeBatch();
+        }
+        pageQuery = connection.prepareStatement("select id, url, content, summary from extracted_content"
+                + " where upper(url) like upper(?) escape '\\' or upper(content) like upper(?) escape '\\'"
+                + " order by id desc offset 0 rows fetch first " + PAGE_SIZE + " rows only");
+        countQuery = connection.prepareStatement("select count(id) from extracted_content"
+                + " where upper(url) like upper(?) escape '\\' or upper(content) like upper(?) escape '\\'");
+        index = new ContentSearchIndex(new ByteBuffersDirectory());
+        index.rebuild(entries);
+    }
+
+    @TearDown
+    public void close() throws SQLException, IOException {
+        index.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public long likeQuery() throws SQLException {
+        String pattern = "%" + TERM + "%";
+        long checksum = 0;
+        pageQuery.setString(1, pattern);
+        pageQuery.setString(2, pattern);
+        try (ResultSet rs = pageQuery.executeQuery()) {
+            while (rs.next()) checksum += rs.getLong(1) + rs.getString(3).length();
+        }
+        countQuery.setString(1, pattern);
+        countQuery.setString(2, pattern);
+        try (ResultSet rs = countQuery.executeQuery()) {
+            rs.next();
+            return checksum + rs.getLong(1);
+        }
+    }
+
+    @Benchmark
+    public long luceneSearch() throws IOException {
+        ContentSearchIndex.Hits hits = index.search(TERM, 0, PAGE_SIZE);
+        return hits.total() + hits.ids().size();
+    }
+
+    @Benchmark
+    public long luceneSearchWithHighlights() throws SQLException, IOException {
+        ContentSearchIndex.Hits hits = index.search(TERM, 0, PAGE_SIZE);
+        long checksum = hits.total();
+        // The controller loads the page's rows by id and highlights each one
+        try (PreparedStatement byId = connection.prepareStatement("select content from extracted_content where id = ?")) {
+            for (long id : hits.ids()) {
+                byId.setLong(1, id);
+                try (ResultSet rs = byId.executeQuery()) {
+                    rs.next();
+                    checksum += index.highlight(TERM, rs.getString(1), 2).length();
+                }
+            }
+        }
+        return checksum;
+    }
+}
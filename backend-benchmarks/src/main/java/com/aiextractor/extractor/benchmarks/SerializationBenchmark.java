@@ -0,0 +1,40 @@
+package com.aiextractor.extractor.benchmarks;
+
+import com.aiextractor.extractor.models.SummaryResponse;
+import com.aiextractor.extractor.utils.ContentDensityExtractor;
+import com.aiextractor.extractor.utils.LocalSummarizer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of the /api/extract response body.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SummaryResponse response;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void load() {
+        String text = ContentDensityExtractor.extract(Jsoup.parse(Corpus.load("small/news-article.html"), Corpus.BASE_URI));
+        Map<String, Object> result = LocalSummarizer.summarize(text, 10);
+        response = new SummaryResponse((String) result.get("summary"), (List<String>) result.get("keyPoints"));
+    }
+
+    @Benchmark
+    public byte[] summaryResponseToJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,185 @@
+package com.aiextractor.extractor.benchmarks;
+
+import com.aiextractor.extractor.utils.ContentCodec;
+import com.aiextractor.extractor.utils.ContentDensityExtractor;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Article text stored inline in extracted_content against content-addressed Deflate blobs
+ * (extractor.storage.blobs.enabled): one page of GET /api/extracted with full content, a single
+ * row by id, and the hash-and-compress work each insert adds. Stored sizes of both layouts are
+ * printed at setup. Runs on in-memory H2, so reads cost no disk I/O; on PostgreSQL the smaller
+ * blob layout also means fewer pages read (TOAST already compresses inline text, with pglz).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageBenchmark {
+    /** Percentage of rows whose text repeats an earlier row's (re-extracted or syndicated pages). */
+    @Param({"0", "50"})
+    public int duplicatePercent;
+
+    private static final int ROWS = 5000;
+    private static final int PAGE_SIZE = 10;
+
+    private Connection connection;
+    private PreparedStatement inlinePage;
+    private PreparedStatement blobPage;
+    private PreparedStatement blobsByHash;
+    private PreparedStatement inlineById;
+    private PreparedStatement blobById;
+    private String article;
+    private long id;
+
+    @Setup
+    public void load() throws SQLException {
+        String[] words = ContentDensityExtractor.extract(Jsoup.parse(Corpus.load("huge/long-report.html"), Corpus.BASE_URI)).split("\\s+");
+        Random random = new Random(1);
+        connection = DriverManager.getConnection("jdbc:h2:mem:storage" + duplicatePercent + ";MODE=PostgreSQL");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table inline_content (id bigint primary key, url varchar(255), content text, summary text)");
+            statement.execute("create table blob_content (id bigint primary key, url varchar(255), content_hash varchar(64), summary text)");
+            statement.execute("create table content_blob (hash varchar(64) primary key, codec varchar(255), raw_bytes int,"
+                    + " preview varchar(500), data bytea)");
+        }
+        Set<String> hashes = new HashSet<>();
+        try (PreparedStatement inline = connection.prepareStatement("insert into inline_content values (?, ?, ?, ?)");
+             PreparedStatement row = connection.prepareStatement("insert into blob_content values (?, ?, ?, ?)");
+             PreparedStatement blob = connection.prepareStatement("insert into content_blob values (?, ?, ?, ?, ?)")) {
+            String previous = null;
+            for (int id = 1; id <= ROWS; id++) {
+                String content;
+                if (previous != null && random.nextInt(100) < duplicatePercent) {
+                    content = previous;
+                } else {
+                    // ~4 KB articles, as in SearchBenchmark
+                    StringBuilder sb = new StringBuilder(4200);
+                    while (sb.length() < 4000) sb.append(words[random.nextInt(words.length)]).append(' ');
+                    content = sb.toString();
+                }
+                previous = content;
+                String url = "https://example.com/articles/" + id;
+                String summary = content.substring(0, 600);
+                inline.setLong(1, id);
+                inline.setString(2, url);
+                inline.setString(3, content);
+                inline.setString(4, summary);
+                inline.addBatch();
+                String hash = ContentCodec.hash(content);
+                if (hashes.add(hash)) {
+                    byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+                    blob.setString(1, hash);
+                    blob.setString(2, ContentCodec.DEFLATE);
+                    blob.setInt(3, raw.length);
+                    blob.setString(4, content.substring(0, 500));
+                    blob.setBytes(5, ContentCodec.compress(raw));
+                    blob.addBatch();
+                }
+                row.setLong(1, id);
+                row.setString(2, url);
+                row.setString(3, hash);
+                row.setString(4, summary);
+                row.addBatch();
+            }
+            inline.executeBatch();
+            blob.executeBatch();
+            row.executeBatch();
+            article = previous;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet inlineSize = statement.executeQuery("select sum(octet_length(content)) from inline_content")) {
+            inlineSize.next();
+            long inlineBytes = inlineSize.getLong(1);
+            try (ResultSet blobSize = statement.executeQuery("select sum(octet_length(data)) + sum(octet_length(preview)), count(*) from content_blob")) {
+                blobSize.next();
+                System.out.printf("%nStored content, %d rows, %d%% duplicates: inline %d bytes, blobs %d bytes in %d blobs (%.1f%%)%n",
+                        ROWS, duplicatePercent, inlineBytes, blobSize.getLong(1), blobSize.getLong(2),
+                        100.0 * blobSize.getLong(1) / inlineBytes);
+            }
+        }
+        inlinePage = connection.prepareStatement("select id, url, content, summary from inline_content"
+                + " order by id desc offset ? rows fetch first " + PAGE_SIZE + " rows only");
+        blobPage = connection.prepareStatement("select id, url, content_hash, summary from blob_content"
+                + " order by id desc offset ? rows fetch first " + PAGE_SIZE + " rows only");
+        blobsByHash = connection.prepareStatement("select hash, raw_bytes, data from content_blob where hash in ("
+                + String.join(", ", Collections.nCopies(PAGE_SIZE, "?")) + ")");
+        inlineById = connection.prepareStatement("select content from inline_content where id = ?");
+        blobById = connection.prepareStatement("select b.raw_bytes, b.data from blob_content e"
+                + " join content_blob b on b.hash = e.content_hash where e.id = ?");
+    }
+
+    @TearDown
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    // Helper: Walk the table so consecutive calls read different rows
+    private long nextId() {
+        id = id % ROWS + 1;
+        return id;
+    }
+
+    @Benchmark
+    public long inlinePage() throws SQLException {
+        inlinePage.setLong(1, (nextId() * PAGE_SIZE) % (ROWS - PAGE_SIZE));
+        long checksum = 0;
+        try (ResultSet rs = inlinePage.executeQuery()) {
+            while (rs.next()) checksum += rs.getLong(1) + rs.getString(3).length();
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long blobPage() throws SQLException {
+        blobPage.setLong(1, (nextId() * PAGE_SIZE) % (ROWS - PAGE_SIZE));
+        long checksum = 0;
+        int parameter = 0;
+        try (ResultSet rs = blobPage.executeQuery()) {
+            while (rs.next()) {
+                checksum += rs.getLong(1);
+                blobsByHash.setString(++parameter, rs.getString(3));
+            }
+        }
+        // The page's blobs in one query, as the @BatchSize on ContentBlob loads them
+        try (ResultSet rs = blobsByHash.executeQuery()) {
+            while (rs.next()) checksum += ContentCodec.decompress(rs.getBytes(3), rs.getInt(2)).length();
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public int inlineById() throws SQLException {
+        inlineById.setLong(1, nextId());
+        try (ResultSet rs = inlineById.executeQuery()) {
+            rs.next();
+            return rs.getString(1).length();
+        }
+    }
+
+    @Benchmark
+    public int blobById() throws SQLException {
+        blobById.setLong(1, nextId());
+        try (ResultSet rs = blobById.executeQuery()) {
+            rs.next();
+            return ContentCodec.decompress(rs.getBytes(2), rs.getInt(1)).length();
+        }
+    }
+
+    @Benchmark
+    public int hashAndCompress() {
+        // What ContentBlobStore adds to each insert
+        return ContentCodec.hash(article).length() + ContentCodec.compress(article.getBytes(StandardCharsets.UTF_8)).length;
+    }
+}
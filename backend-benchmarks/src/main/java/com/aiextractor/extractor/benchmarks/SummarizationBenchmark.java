@@ -0,0 +1,50 @@
+package com.aiextractor.extractor.benchmarks;
+
+import com.aiextractor.extractor.utils.ContentDensityExtractor;
+import com.aiextractor.extractor.utils.LocalSummarizer;
+import org.jsoup.Jsoup;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local (extractive) summarization, which is what SummarizationService.summarize runs when no
+ * HuggingFace key is configured, over article text of increasing size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SummarizationBenchmark {
+    /** Characters of article text to summarize. */
+    @Param({"2000", "20000", "200000"})
+    public int textLength;
+
+    private String text;
+    private String summary;
+
+    @Setup
+    public void load() {
+        String source = ContentDensityExtractor.extract(Jsoup.parse(Corpus.load("huge/long-report.html"), Corpus.BASE_URI));
+        StringBuilder sb = new StringBuilder(textLength);
+        while (sb.length() < textLength) {
+            sb.append(source, 0, Math.min(source.length(), textLength - sb.length())).append(' ');
+        }
+        text = sb.toString();
+        summary = (String) LocalSummarizer.summarize(text, 10).get("summary");
+    }
+
+    @Benchmark
+    public Map<String, Object> summarizeLocally() {
+        return LocalSummarizer.summarize(text, 10);
+    }
+
+    @Benchmark
+    public List<String> keyPointsFromSummary() {
+        return LocalSummarizer.keyPoints(summary, 7);
+    }
+}
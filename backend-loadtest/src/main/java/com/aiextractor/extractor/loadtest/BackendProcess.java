@@ -0,0 +1,156 @@
+package com.aiextractor.extractor.loadtest;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The backend under test, started as a child JVM from the same classpath on a free port with an
+ * H2 database in PostgreSQL mode, so no database server is needed. Its output goes to a log
+ * file rather than the console.
+ */
+public class BackendProcess implements Closeable {
+    public static final String IN_MEMORY_DB = "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+    private static final String MAIN_CLASS = "com.aiextractor.extractor.ExtractorApplication";
+
+    private final Process process;
+    private final String baseUrl;
+
+    private BackendProcess(Process process, String baseUrl) {
+        this.process = process;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Starts the backend and waits until its health endpoint answers.
+     *
+     * @param jdbcUrl   H2 database, e.g. IN_MEMORY_DB
+     * @param hfBaseUrl stub inference server, or null to summarize locally
+     * @param jvmArgs   extra JVM options, e.g. -Xmx256m
+     * @param appArgs   extra Spring arguments, e.g. --extractor.near-duplicates.enabled=true
+     */
+    public static BackendProcess start(String jdbcUrl, String hfBaseUrl, List<String> jvmArgs, List<String> appArgs,
+                                       Path log, Duration startupTimeout) throws IOException, InterruptedException {
+        BackendProcess backend = launch(jdbcUrl, hfBaseUrl, jvmArgs, appArgs, log);
+        try {
+            backend.awaitHealthy(startupTimeout, log.toFile());
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            backend.close();
+            throw e;
+        }
+        return backend;
+    }
+
+    /**
+     * Starts the backend without waiting for it, for callers that time the startup themselves.
+     */
+    public static BackendProcess launch(String jdbcUrl, String hfBaseUrl, List<String> jvmArgs, List<String> appArgs,
+                                        Path log) throws IOException {
+        int port = freePort();
+        return new BackendProcess(builder(jdbcUrl, hfBaseUrl, jvmArgs, appArgs, port, log).start(), "http://127.0.0.1:" + port);
+    }
+
+    /**
+     * Runs the backend only until its application context has been refreshed, without serving
+     * anything, e.g. as the training run that writes a CDS archive with -XX:ArchiveClassesAtExit.
+     */
+    public static void runUntilRefreshed(String jdbcUrl, List<String> jvmArgs, List<String> appArgs, Path log,
+                                         Duration timeout) throws IOException, InterruptedException {
+        List<String> args = new ArrayList<>(jvmArgs);
+        args.add("-Dspring.context.exit=onRefresh");
+        Process process = builder(jdbcUrl, null, args, appArgs, freePort(), log).start();
+        if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            process.destroyForcibly();
+            throw new IOException("Backend still running after " + timeout.toSeconds() + "s, see " + log);
+        }
+        if (process.exitValue() != 0) throw new IOException("Backend exited with code " + process.exitValue() + ", see " + log);
+    }
+
+    private static ProcessBuilder builder(String jdbcUrl, String hfBaseUrl, List<String> jvmArgs, List<String> appArgs,
+                                          int port, Path log) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.addAll(List.of(
+                "-cp", System.getProperty("java.class.path"),
+                MAIN_CLASS,
+                "--server.port=" + port,
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.show-sql=false"));
+        if (hfBaseUrl != null) command.add("--extractor.hf.base-url=" + hfBaseUrl);
+        command.addAll(appArgs);
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        if (hfBaseUrl != null) {
+            builder.environment().put("HUGGINGFACE_API_KEY", "loadtest");
+        } else {
+            builder.environment().remove("HUGGINGFACE_API_KEY");
+        }
+        return builder;
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    public long pid() {
+        return process.pid();
+    }
+
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    private void awaitHealthy(Duration timeout, File log) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("Backend exited with code " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) return;
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(250);
+        }
+        throw new IOException("Backend not healthy after " + timeout.toSeconds() + "s, see " + log);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+        try {
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
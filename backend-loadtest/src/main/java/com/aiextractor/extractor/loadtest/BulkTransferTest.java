@@ -0,0 +1,171 @@
+package com.aiextractor.extractor.loadtest;
+
+import com.aiextractor.extractor.utils.Csv;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Bulk import and export throughput: generates a file of --rows records, loads it with
+ * POST /api/extracted/import, then reads everything back with GET /api/extracted/export.
+ * The backend gets a small heap (--backend-heap) so an export that held the table in memory
+ * would fail, and a file-backed H2 database unless --target points at a running backend
+ * (e.g. one on PostgreSQL, to measure COPY).
+ */
+public class BulkTransferTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("rows", "1000000");
+        DEFAULTS.put("content-size", "1000");
+        DEFAULTS.put("format", "ndjson");
+        DEFAULTS.put("backend-heap", "256m");
+        // An in-memory Lucene index of every imported row would not fit that heap
+        DEFAULTS.put("app-args", "--extractor.search.engine=like");
+        DEFAULTS.put("target", "");
+        DEFAULTS.put("result", "target/bulk-result.json");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args, DEFAULTS);
+        int rows = options.integer("rows");
+        String format = options.get("format");
+        Path input = Path.of("target", "bulk-import." + format);
+        Files.createDirectories(input.getParent());
+        System.out.printf("Writing %d records to %s%n", rows, input);
+        // Key points are cut from the first 180 characters
+        generate(input, format, rows, Math.max(200, options.integer("content-size")));
+        long fileBytes = Files.size(input);
+
+        BackendProcess backend = null;
+        String target = options.get("target");
+        if (target.isEmpty()) {
+            Path db = Path.of("target", "bulk-db");
+            deleteRecursively(db);
+            Path log = Path.of("target", "bulk-backend.log");
+            System.out.println("Starting backend, log in " + log);
+            backend = BackendProcess.start("jdbc:h2:file:" + db.toAbsolutePath().resolve("extractor") + ";MODE=PostgreSQL",
+                    null, List.of("-Xmx" + options.get("backend-heap")), options.words("app-args"), log, Duration.ofMinutes(2));
+            target = backend.baseUrl();
+        }
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("options", options.asMap());
+
+            long start = System.nanoTime();
+            HttpResponse<String> imported = client.send(HttpRequest.newBuilder(URI.create(target + "/api/extracted/import?format=" + format))
+                    .header("Content-Type", format.equals("csv") ? "text/csv" : "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofFile(input))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            double importSeconds = (System.nanoTime() - start) / 1e9;
+            if (imported.statusCode() != 200) throw new IOException("Import failed: " + imported.statusCode() + " " + imported.body());
+            report.put("import", stage(rows, fileBytes, importSeconds));
+
+            start = System.nanoTime();
+            HttpResponse<InputStream> exported = client.send(HttpRequest.newBuilder(URI.create(target + "/api/extracted/export?format=" + format)).build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            long exportBytes = 0;
+            long lines = 0;
+            try (InputStream in = exported.body()) {
+                byte[] buffer = new byte[65536];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    exportBytes += read;
+                    for (int i = 0; i < read; i++) if (buffer[i] == '\n') lines++;
+                }
+            }
+            double exportSeconds = (System.nanoTime() - start) / 1e9;
+            if (exported.statusCode() != 200) throw new IOException("Export failed: " + exported.statusCode());
+            // Generated text has no line breaks, so every line is one row (plus the CSV header)
+            long exportedRows = format.equals("csv") ? lines - 1 : lines;
+            report.put("export", stage(exportedRows, exportBytes, exportSeconds));
+
+            System.out.printf("%nImport: %s%nExport: %s%n", report.get("import"), report.get("export"));
+            Path resultFile = Path.of(options.get("result"));
+            MAPPER.writer().with(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile.toFile(), report);
+            System.out.println("Results written to " + resultFile);
+        } finally {
+            if (backend != null) backend.close();
+        }
+        System.exit(0);
+    }
+
+    private static Map<String, Object> stage(long rows, long bytes, double seconds) {
+        Map<String, Object> stage = new LinkedHashMap<>();
+        stage.put("rows", rows);
+        stage.put("megabytes", Math.round(bytes / 1e5) / 10.0);
+        stage.put("seconds", Math.round(seconds * 10) / 10.0);
+        stage.put("rowsPerSecond", Math.round(rows / seconds));
+        stage.put("megabytesPerSecond", Math.round(bytes / 1e5 / seconds) / 10.0);
+        return stage;
+    }
+
+    // Helper: Records like real extractions: text over the origin's vocabulary, a summary cut from it, three key points
+    private static void generate(Path file, String format, int rows, int contentSize) throws IOException {
+        Random random = new Random(1);
+        Instant createdAt = Instant.parse("2024-01-01T00:00:00Z");
+        StringBuilder content = new StringBuilder(contentSize + 32);
+        try (Writer writer = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16);
+             JsonGenerator json = MAPPER.getFactory().createGenerator(writer)) {
+            json.setRootValueSeparator(null);
+            if (format.equals("csv")) Csv.writeRow(writer, List.of("id", "url", "content", "summary", "key_points", "created_at"));
+            for (int row = 1; row <= rows; row++) {
+                content.setLength(0);
+                while (content.length() < contentSize) {
+                    content.append(StubOrigin.VOCABULARY[random.nextInt(StubOrigin.VOCABULARY.length)]).append(' ');
+                }
+                String text = content.toString();
+                String summary = text.substring(0, Math.min(200, text.length()));
+                List<String> keyPoints = List.of(text.substring(0, 60), text.substring(60, 120), text.substring(120, 180));
+                String url = "https://example.com/articles/" + row;
+                String created = createdAt.plusSeconds(row).toString();
+                if (format.equals("csv")) {
+                    Csv.writeRow(writer, Arrays.asList(String.valueOf(row), url, text, summary,
+                            MAPPER.writeValueAsString(keyPoints), created));
+                } else {
+                    json.writeStartObject();
+                    json.writeNumberField("id", row);
+                    json.writeStringField("url", url);
+                    json.writeStringField("content", text);
+                    json.writeStringField("summary", summary);
+                    json.writeArrayFieldStart("keyPoints");
+                    for (String point : keyPoints) json.writeString(point);
+                    json.writeEndArray();
+                    json.writeStringField("createdAt", created);
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) return;
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.aiextractor.extractor.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load generator: each scenario sends requests at a fixed arrival rate whether or
+ * not earlier ones have finished, the way independent users would. Latency is measured from
+ * the time a request was due to be sent rather than when it actually went out, so a stalled
+ * server shows up as latency instead of silently lowering the rate (coordinated omission).
+ * Requests due while a scenario already has maxOutstanding in flight are not sent and are
+ * counted as dropped.
+ */
+public class LoadGenerator {
+    /**
+     * An endpoint driven at ratePerSecond; request builds the next request.
+     */
+    public record Scenario(String name, double ratePerSecond, Supplier<HttpRequest> request) {}
+
+    /**
+     * Measured outcome of one scenario; latencies in milliseconds, throughput in successful requests per second.
+     */
+    public record Result(String name, double rate, long sent, long ok, long errors, long dropped,
+                         Map<String, Long> errorsByCause, double throughput, double errorRate,
+                         double p50, double p99, double p999, double max) {}
+
+    private final HttpClient client;
+    private final int maxOutstanding;
+
+    public LoadGenerator(HttpClient client, int maxOutstanding) {
+        this.client = client;
+        this.maxOutstanding = maxOutstanding;
+    }
+
+    /**
+     * Runs all scenarios together for warmup plus duration, then waits up to drainTimeout for
+     * requests still in flight. Only requests due after the warmup are counted.
+     */
+    public List<Result> run(List<Scenario> scenarios, Duration warmup, Duration duration, Duration drainTimeout)
+            throws InterruptedException {
+        long start = System.nanoTime() + 50_000_000L;
+        long measureStart = start + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+        List<Run> runs = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            if (scenario.ratePerSecond() <= 0) continue;
+            Run run = new Run(scenario, start, measureStart, end);
+            run.thread.start();
+            runs.add(run);
+        }
+        for (Run run : runs) run.thread.join();
+        long drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+        for (Run run : runs) {
+            while (run.outstanding.get() > 0 && System.nanoTime() < drainDeadline) Thread.sleep(50);
+        }
+        List<Result> results = new ArrayList<>();
+        for (Run run : runs) results.add(run.result(duration));
+        return results;
+    }
+
+    private class Run {
+        final Scenario scenario;
+        final long start;
+        final long measureStart;
+        final long end;
+        final Thread thread;
+        final AtomicInteger outstanding = new AtomicInteger();
+        final Histogram latencyMicros = new ConcurrentHistogram(3);
+        final LongAdder sent = new LongAdder();
+        final LongAdder ok = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        Run(Scenario scenario, long start, long measureStart, long end) {
+            this.scenario = scenario;
+            this.start = start;
+            this.measureStart = measureStart;
+            this.end = end;
+            this.thread = new Thread(this::dispatch, "load-" + scenario.name());
+            this.thread.setDaemon(true);
+        }
+
+        private void dispatch() {
+            double intervalNanos = 1e9 / scenario.ratePerSecond();
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * intervalNanos);
+                if (intended >= end) return;
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+                boolean measured = intended >= measureStart;
+                if (outstanding.get() >= maxOutstanding) {
+                    if (measured) dropped.increment();
+                    continue;
+                }
+                outstanding.incrementAndGet();
+                if (measured) sent.increment();
+                client.sendAsync(scenario.request().get(), HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, failure) -> {
+                            outstanding.decrementAndGet();
+                            if (!measured) return;
+                            latencyMicros.recordValue(Math.max(0, (System.nanoTime() - intended) / 1000));
+                            if (failure != null) {
+                                error(cause(failure));
+                            } else if (response.statusCode() / 100 == 2) {
+                                ok.increment();
+                            } else {
+                                error(String.valueOf(response.statusCode()));
+                            }
+                        });
+            }
+        }
+
+        private void error(String cause) {
+            errors.computeIfAbsent(cause, c -> new LongAdder()).increment();
+        }
+
+        Result result(Duration duration) {
+            Map<String, Long> errorsByCause = new TreeMap<>();
+            errors.forEach((cause, count) -> errorsByCause.put(cause, count.sum()));
+            long errorCount = errorsByCause.values().stream().mapToLong(Long::longValue).sum();
+            long sentCount = sent.sum();
+            return new Result(scenario.name(), scenario.ratePerSecond(), sentCount, ok.sum(), errorCount, dropped.sum(),
+                    errorsByCause,
+                    ok.sum() / (duration.toNanos() / 1e9),
+                    sentCount + dropped.sum() == 0 ? 0 : (double) (errorCount + dropped.sum()) / (sentCount + dropped.sum()),
+                    millis(latencyMicros.getValueAtPercentile(50)),
+                    millis(latencyMicros.getValueAtPercentile(99)),
+                    millis(latencyMicros.getValueAtPercentile(99.9)),
+                    millis(latencyMicros.getMaxValue()));
+        }
+    }
+
+    private static String cause(Throwable failure) {
+        Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+        return cause instanceof HttpTimeoutException ? "timeout" : cause.getClass().getSimpleName();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,187 @@
+package com.aiextractor.extractor.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs the backend against a stub origin and a stub inference server and drives
+ * POST /api/extract, GET /api/extracted?view=list and GET /api/extracted?search= at fixed
+ * arrival rates. Prints throughput, latency percentiles and errors per endpoint and writes
+ * them as JSON. Options are --name=value; see the README for the list.
+ */
+public class LoadTest {
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("rate.extract", "5");
+        DEFAULTS.put("rate.list", "10");
+        DEFAULTS.put("rate.search", "10");
+        DEFAULTS.put("duration", "60s");
+        DEFAULTS.put("warmup", "15s");
+        DEFAULTS.put("seed", "100");
+        DEFAULTS.put("max-outstanding", "1000");
+        DEFAULTS.put("request-timeout", "60s");
+        DEFAULTS.put("pages", "2000");
+        DEFAULTS.put("page-size", "20000");
+        DEFAULTS.put("origin-latency", "50ms");
+        DEFAULTS.put("origin-hosts", "8");
+        DEFAULTS.put("hf", "true");
+        DEFAULTS.put("hf-latency", "500ms");
+        DEFAULTS.put("hf-failure-rate", "0");
+        DEFAULTS.put("target", "");
+        DEFAULTS.put("app-args", "");
+        DEFAULTS.put("result", "target/loadtest-result.json");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args, DEFAULTS);
+        Duration requestTimeout = options.duration("request-timeout");
+        boolean useHf = Boolean.parseBoolean(options.get("hf"));
+
+        try (StubOrigin origin = new StubOrigin(options.integer("origin-hosts"), options.integer("pages"),
+                     options.integer("page-size"), options.duration("origin-latency"));
+             StubInference inference = new StubInference(options.duration("hf-latency"), options.number("hf-failure-rate"))) {
+            origin.start();
+            if (useHf) inference.start();
+
+            BackendProcess backend = null;
+            String target = options.get("target");
+            if (target.isEmpty()) {
+                Path log = Path.of("target", "loadtest-backend.log");
+                Files.createDirectories(log.getParent());
+                List<String> appArgs = options.words("app-args");
+                System.out.println("Starting backend, log in " + log);
+                backend = BackendProcess.start(BackendProcess.IN_MEMORY_DB, useHf ? inference.baseUrl() : null, List.of(),
+                        appArgs, log, Duration.ofMinutes(2));
+                target = backend.baseUrl();
+            }
+            try {
+                HttpClient client = HttpClient.newBuilder()
+                        .executor(Executors.newCachedThreadPool(r -> {
+                            Thread t = new Thread(r, "load-client");
+                            t.setDaemon(true);
+                            return t;
+                        }))
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+                Requests requests = new Requests(target, origin, requestTimeout);
+
+                int seeded = seed(client, requests, options.integer("seed"));
+                System.out.printf("Seeded %d articles; running %s warmup + %s at extract %s/s, list %s/s, search %s/s%n",
+                        seeded, options.get("warmup"), options.get("duration"),
+                        options.get("rate.extract"), options.get("rate.list"), options.get("rate.search"));
+
+                List<LoadGenerator.Scenario> scenarios = List.of(
+                        new LoadGenerator.Scenario("extract", options.number("rate.extract"), requests::extract),
+                        new LoadGenerator.Scenario("list", options.number("rate.list"), requests::list),
+                        new LoadGenerator.Scenario("search", options.number("rate.search"), requests::search));
+                List<LoadGenerator.Result> results = new LoadGenerator(client, options.integer("max-outstanding"))
+                        .run(scenarios, options.duration("warmup"), options.duration("duration"), requestTimeout);
+
+                print(results);
+                if (useHf) System.out.printf("Stub inference: %d calls, %d failed%n", inference.calls(), inference.failures());
+                Path resultFile = Path.of(options.get("result"));
+                if (resultFile.getParent() != null) Files.createDirectories(resultFile.getParent());
+                Map<String, Object> report = new LinkedHashMap<>();
+                report.put("options", options.asMap());
+                report.put("results", results);
+                new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile.toFile(), report);
+                System.out.println("Results written to " + resultFile);
+            } finally {
+                if (backend != null) backend.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Builds the requests of each scenario: extracts of random corpus pages, the first page of the
+     * article list, and searches for random corpus words.
+     */
+    private static class Requests {
+        private final String target;
+        private final StubOrigin origin;
+        private final Duration timeout;
+
+        Requests(String target, StubOrigin origin, Duration timeout) {
+            this.target = target;
+            this.origin = origin;
+            this.timeout = timeout;
+        }
+
+        HttpRequest extract() {
+            return extract(ThreadLocalRandom.current().nextInt(origin.pageCount()));
+        }
+
+        HttpRequest extract(int page) {
+            String body = "{\"url\":\"" + origin.url(page) + "\"}";
+            return HttpRequest.newBuilder(URI.create(target + "/api/extract"))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        HttpRequest list() {
+            return get("/api/extracted?view=list&size=20");
+        }
+
+        HttpRequest search() {
+            String word = StubOrigin.VOCABULARY[ThreadLocalRandom.current().nextInt(StubOrigin.VOCABULARY.length)];
+            return get("/api/extracted?size=10&search=" + URLEncoder.encode(word, StandardCharsets.UTF_8));
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(target + path)).timeout(timeout).GET().build();
+        }
+    }
+
+    // Helper: Extract the first pages of the corpus so listing and search have something to return
+    private static int seed(HttpClient client, Requests requests, int pages) {
+        List<CompletableFuture<HttpResponse<Void>>> pending = new ArrayList<>();
+        int stored = 0;
+        for (int page = 0; page < pages; page++) {
+            pending.add(client.sendAsync(requests.extract(page), HttpResponse.BodyHandlers.discarding()));
+            if (pending.size() == 16 || page == pages - 1) {
+                for (CompletableFuture<HttpResponse<Void>> response : pending) {
+                    try {
+                        if (response.join().statusCode() == 200) stored++;
+                    } catch (RuntimeException e) {
+                        // Counted as not stored
+                    }
+                }
+                pending.clear();
+            }
+        }
+        return stored;
+    }
+
+    private static void print(List<LoadGenerator.Result> results) {
+        System.out.printf("%n%-8s %8s %8s %8s %8s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "rate/s", "sent", "ok", "errors", "dropped", "ok/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (LoadGenerator.Result r : results) {
+            System.out.printf("%-8s %8.1f %8d %8d %8d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    r.name(), r.rate(), r.sent(), r.ok(), r.errors(), r.dropped(), r.throughput(),
+                    r.p50(), r.p99(), r.p999(), r.max());
+            if (!r.errorsByCause().isEmpty()) System.out.println("         errors: " + r.errorsByCause());
+        }
+        System.out.println();
+    }
+}
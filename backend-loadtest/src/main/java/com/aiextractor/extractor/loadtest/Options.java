@@ -0,0 +1,58 @@
+package com.aiextractor.extractor.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options of the form --name=value, each with a default; unknown names are rejected.
+ */
+class Options {
+    private final Map<String, String> values;
+
+    private Options(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static Options parse(String[] args, Map<String, String> defaults) {
+        Map<String, String> values = new LinkedHashMap<>(defaults);
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            String name = arg.substring(2, eq);
+            if (!defaults.containsKey(name)) throw new IllegalArgumentException("Unknown option --" + name + ", known: " + defaults.keySet());
+            values.put(name, arg.substring(eq + 1));
+        }
+        return new Options(values);
+    }
+
+    Map<String, String> asMap() {
+        return values;
+    }
+
+    String get(String name) {
+        return values.get(name);
+    }
+
+    /** Space-separated words of the value; empty if it is blank. */
+    List<String> words(String name) {
+        String value = values.get(name).trim();
+        return value.isEmpty() ? List.of() : Arrays.asList(value.split("\\s+"));
+    }
+
+    Duration duration(String name) {
+        return DurationStyle.detectAndParse(values.get(name));
+    }
+
+    int integer(String name) {
+        return Integer.parseInt(values.get(name));
+    }
+
+    double number(String name) {
+        return Double.parseDouble(values.get(name));
+    }
+}
@@ -0,0 +1,183 @@
+package com.aiextractor.extractor.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Startup time and memory of the backend in several runtime variants: how long from launching
+ * the JVM until the first POST /api/extract succeeds, how long that first request itself took,
+ * and the resident set size afterwards. A variant combines the features profile (the production
+ * Spring profile: migrations, lazy initialization, no JDBC metadata lookups), aot (Spring AOT
+ * bean definitions, so the backend must be installed with -Pproduction) and cds (a class data
+ * sharing archive from a training run, as the Docker image builds it); plain uses none of them.
+ */
+public class StartupTest {
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+    private static final Set<String> FEATURES = Set.of("profile", "aot", "cds");
+
+    static {
+        DEFAULTS.put("variants", "plain,profile,profile+aot,profile+aot+cds");
+        DEFAULTS.put("runs", "3");
+        DEFAULTS.put("jvm-args", "");
+        DEFAULTS.put("app-args", "");
+        DEFAULTS.put("timeout", "2m");
+        DEFAULTS.put("result", "target/startup-result.json");
+    }
+
+    /**
+     * One launch: milliseconds from starting the JVM to the first successful extract, milliseconds
+     * that request took, and resident set size (current and peak) afterwards in megabytes.
+     */
+    public record Run(double firstExtractMs, double firstRequestMs, double rssMb, double peakRssMb) {}
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args, DEFAULTS);
+        Path target = Path.of("target");
+        Files.createDirectories(target);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", options.asMap());
+        Map<String, Object> variants = new LinkedHashMap<>();
+        report.put("variants", variants);
+
+        try (StubOrigin origin = new StubOrigin(1, 100, 20000, Duration.ZERO)) {
+            origin.start();
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+            for (String variant : options.get("variants").split(",")) {
+                Set<String> features = features(variant.trim());
+                List<String> jvmArgs = new ArrayList<>(options.words("jvm-args"));
+                List<String> appArgs = new ArrayList<>(options.words("app-args"));
+                if (features.contains("profile")) {
+                    appArgs.add("--spring.profiles.active=production");
+                    // The profile names the PostgreSQL dialect; the backend runs on H2 here
+                    appArgs.add("--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect");
+                }
+                if (features.contains("aot")) jvmArgs.add("-Dspring.aot.enabled=true");
+                if (features.contains("cds")) {
+                    Path archive = target.resolve("startup-" + variant.trim().replace('+', '-') + ".jsa");
+                    System.out.println(variant + ": training run for " + archive);
+                    train(jvmArgs, appArgs, features, archive, options.duration("timeout"));
+                    jvmArgs.add("-XX:SharedArchiveFile=" + archive);
+                }
+
+                List<Run> runs = new ArrayList<>();
+                for (int i = 0; i < options.integer("runs"); i++) {
+                    Path log = target.resolve("startup-backend.log");
+                    Run run = measure(client, origin.url(i), jvmArgs, appArgs, log, options.duration("timeout"));
+                    System.out.printf("%s: run %d %s%n", variant, i + 1, run);
+                    runs.add(run);
+                }
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("median", new Run(median(runs, Run::firstExtractMs), median(runs, Run::firstRequestMs),
+                        median(runs, Run::rssMb), median(runs, Run::peakRssMb)));
+                result.put("runs", runs);
+                variants.put(variant, result);
+            }
+        }
+
+        System.out.printf("%n%-20s %18s %18s %10s %14s%n", "variant", "first extract ms", "first request ms", "RSS MB", "peak RSS MB");
+        variants.forEach((variant, result) -> {
+            @SuppressWarnings("unchecked")
+            Run median = (Run) ((Map<String, Object>) result).get("median");
+            System.out.printf("%-20s %18.0f %18.0f %10.0f %14.0f%n",
+                    variant, median.firstExtractMs(), median.firstRequestMs(), median.rssMb(), median.peakRssMb());
+        });
+        Path resultFile = Path.of(options.get("result"));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile.toFile(), report);
+        System.out.println("Results written to " + resultFile);
+        System.exit(0);
+    }
+
+    private static Set<String> features(String variant) {
+        if (variant.equals("plain")) return Set.of();
+        Set<String> features = Set.of(variant.split("\\+"));
+        if (!FEATURES.containsAll(features)) {
+            throw new IllegalArgumentException("Unknown variant " + variant + "; combine " + FEATURES + " with + or use plain");
+        }
+        return features;
+    }
+
+    // Helper: The image build's training run: the same JVM and profile, every bean created, no migrations
+    private static void train(List<String> jvmArgs, List<String> appArgs, Set<String> features, Path archive,
+                              Duration timeout) throws IOException, InterruptedException {
+        Files.deleteIfExists(archive);
+        List<String> trainingJvmArgs = new ArrayList<>(jvmArgs);
+        trainingJvmArgs.add("-XX:ArchiveClassesAtExit=" + archive);
+        trainingJvmArgs.add("-Xlog:cds=error");
+        List<String> trainingAppArgs = new ArrayList<>(appArgs);
+        if (features.contains("profile")) {
+            trainingAppArgs.add("--extractor.schema.migrations.enabled=false");
+            trainingAppArgs.add("--spring.main.lazy-initialization=false");
+        }
+        Path log = Path.of("target", "startup-training.log");
+        BackendProcess.runUntilRefreshed(BackendProcess.IN_MEMORY_DB, trainingJvmArgs, trainingAppArgs, log, timeout);
+        // Class data sharing needs a class path of jars only; with directories no archive is written
+        if (!Files.exists(archive)) throw new IOException("No CDS archive written, see " + log);
+    }
+
+    private static Run measure(HttpClient client, String pageUrl, List<String> jvmArgs, List<String> appArgs, Path log,
+                               Duration timeout) throws IOException, InterruptedException {
+        long launched = System.nanoTime();
+        BackendProcess backend = BackendProcess.launch(BackendProcess.IN_MEMORY_DB, null, jvmArgs, appArgs, log);
+        try {
+            HttpRequest extract = HttpRequest.newBuilder(URI.create(backend.baseUrl() + "/api/extract"))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"url\":\"" + pageUrl + "\"}"))
+                    .build();
+            long deadline = launched + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!backend.isAlive()) throw new IOException("Backend exited during startup, see " + log);
+                long sent = System.nanoTime();
+                try {
+                    if (client.send(extract, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long done = System.nanoTime();
+                        Map<String, Long> status = memory(backend.pid());
+                        return new Run((done - launched) / 1e6, (done - sent) / 1e6,
+                                status.getOrDefault("VmRSS", -1L) / 1024.0, status.getOrDefault("VmHWM", -1L) / 1024.0);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(20);
+            }
+            throw new IOException("No successful extract after " + timeout.toSeconds() + "s, see " + log);
+        } finally {
+            backend.close();
+        }
+    }
+
+    // Helper: Memory lines of /proc/<pid>/status in kB (Linux only; empty elsewhere)
+    private static Map<String, Long> memory(long pid) throws IOException {
+        Map<String, Long> values = new LinkedHashMap<>();
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) return values;
+        for (String line : Files.readAllLines(status)) {
+            if (!line.startsWith("Vm")) continue;
+            String[] parts = line.split("\\s+");
+            values.put(parts[0].substring(0, parts[0].length() - 1), Long.parseLong(parts[1]));
+        }
+        return values;
+    }
+
+    private static double median(List<Run> runs, ToDoubleFunction<Run> metric) {
+        List<Double> values = runs.stream().map(metric::applyAsDouble).sorted(Comparator.naturalOrder()).toList();
+        int n = values.size();
+        return n % 2 == 1 ? values.get(n / 2) : (values.get(n / 2 - 1) + values.get(n / 2)) / 2;
+    }
+}
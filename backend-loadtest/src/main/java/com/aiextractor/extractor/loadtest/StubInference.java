@@ -0,0 +1,119 @@
+package com.aiextractor.extractor.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for the HuggingFace Inference API at POST /models/{model}. Accepts {"inputs": text}
+ * and {"inputs": [texts]} and answers [{"summary_text": ...}] per input, made of the input's
+ * first two sentences. Each call waits the configured latency, then fails with 503 (what the
+ * real API returns while a model is loading) with the configured probability.
+ */
+public class StubInference implements Closeable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final long latencyMillis;
+    private final double failureRate;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "stub-inference");
+        t.setDaemon(true);
+        return t;
+    });
+    private HttpServer server;
+
+    public StubInference(Duration latency, double failureRate) {
+        this.latencyMillis = latency.toMillis();
+        this.failureRate = failureRate;
+    }
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/models/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long calls() {
+        return calls.get();
+    }
+
+    public long failures() {
+        return failures.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            calls.incrementAndGet();
+            JsonNode inputs;
+            try (InputStream in = exchange.getRequestBody()) {
+                inputs = MAPPER.readTree(in).path("inputs");
+            } catch (IOException e) {
+                inputs = null;
+            }
+            if (!"POST".equals(exchange.getRequestMethod()) || inputs == null || inputs.isMissingNode()) {
+                respond(exchange, 400, Map.of("error", "Expected POST with an inputs field"));
+                return;
+            }
+            StubOrigin.sleep(latencyMillis);
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                failures.incrementAndGet();
+                respond(exchange, 503, Map.of("error", "Model is currently loading", "estimated_time", 20.0));
+                return;
+            }
+            List<Map<String, String>> summaries = new ArrayList<>();
+            if (inputs.isArray()) {
+                inputs.forEach(input -> summaries.add(Map.of("summary_text", summarize(input.asText()))));
+            } else {
+                summaries.add(Map.of("summary_text", summarize(inputs.asText())));
+            }
+            respond(exchange, 200, summaries);
+        }
+    }
+
+    private static String summarize(String text) {
+        int end = 0;
+        for (int sentence = 0; sentence < 2; sentence++) {
+            int next = text.indexOf(". ", end);
+            if (next < 0) return text.strip();
+            end = next + 1;
+        }
+        return text.substring(0, end).strip();
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (server != null) server.stop(0);
+        executor.shutdownNow();
+    }
+}
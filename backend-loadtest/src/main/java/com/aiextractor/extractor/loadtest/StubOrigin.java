@@ -0,0 +1,163 @@
+package com.aiextractor.extractor.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Stand-in for the web: serves a fixed corpus of generated article pages with realistic
+ * boilerplate (navigation, sidebar, related links, footer) around the article text. Pages are
+ * spread over several loopback hosts (127.0.0.1, 127.0.0.2, ...) so the backend's per-host
+ * limits apply as they would across real sites. Every response is delayed by the configured latency.
+ */
+public class StubOrigin implements Closeable {
+    /** Words the articles are made of; also the search terms the load generator uses. */
+    public static final String[] VOCABULARY = ("reservoir drought council rainfall harvest engineers survey turbine "
+            + "market inflation wages housing transit railway budget election coalition senate tariff exports "
+            + "vaccine hospital clinic research telescope galaxy satellite climate wildfire glacier coastline "
+            + "football stadium tournament orchestra festival gallery museum novel startup software network "
+            + "battery charging factory supply shipping port harbour bridge tunnel river valley village city").split(" ");
+    private static final String[] FILLER = ("the a of and to in that for on with as was is by at from said would "
+            + "after while its their this year officials local new more than over into").split(" ");
+
+    private final int hostCount;
+    private final int pageCount;
+    private final int pageBytes;
+    private final long latencyMillis;
+    private final byte[][] pages;
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "stub-origin");
+        t.setDaemon(true);
+        return t;
+    });
+    private int port;
+
+    public StubOrigin(int hostCount, int pageCount, int pageBytes, Duration latency) {
+        this.hostCount = hostCount;
+        this.pageCount = pageCount;
+        this.pageBytes = pageBytes;
+        this.latencyMillis = latency.toMillis();
+        this.pages = new byte[pageCount][];
+    }
+
+    public void start() throws IOException {
+        for (int host = 1; host <= hostCount; host++) {
+            // All hosts share the first host's port, so a page URL only differs in its address
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0." + host, port), 1024);
+            server.setExecutor(executor);
+            server.createContext("/articles/", this::handle);
+            server.start();
+            port = server.getAddress().getPort();
+            servers.add(server);
+        }
+    }
+
+    public int pageCount() {
+        return pageCount;
+    }
+
+    public String url(int page) {
+        return "http://127.0.0." + (page % hostCount + 1) + ":" + port + "/articles/" + page;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            int page;
+            try {
+                page = Integer.parseInt(exchange.getRequestURI().getPath().substring("/articles/".length()));
+            } catch (NumberFormatException e) {
+                page = -1;
+            }
+            if (page < 0 || page >= pageCount) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            sleep(latencyMillis);
+            byte[] body = page(page);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    // Helper: The page's HTML, generated on first request from a seed of its number
+    private byte[] page(int page) {
+        synchronized (pages) {
+            if (pages[page] == null) pages[page] = generate(page).getBytes(StandardCharsets.UTF_8);
+            return pages[page];
+        }
+    }
+
+    private String generate(int page) {
+        Random random = new Random(page);
+        StringBuilder html = new StringBuilder(pageBytes + 2048);
+        String topic = VOCABULARY[random.nextInt(VOCABULARY.length)];
+        html.append("<!DOCTYPE html><html><head><title>").append(capitalize(topic)).append(" report ").append(page)
+                .append("</title></head><body><header><nav><ul>");
+        for (int i = 0; i < 12; i++) {
+            html.append("<li><a href=\"/section/").append(i).append("\">Section ").append(i).append("</a></li>");
+        }
+        html.append("</ul></nav></header><main><article><h1>").append(capitalize(topic)).append(" report ").append(page).append("</h1>");
+        int articleEnd = pageBytes - 1500;
+        while (html.length() < articleEnd) {
+            html.append("<p>");
+            for (int s = 0; s < 4; s++) html.append(sentence(random, topic)).append(' ');
+            html.append("</p>");
+        }
+        html.append("</article><aside><h3>Related</h3><ul>");
+        for (int i = 0; i < 8; i++) {
+            html.append("<li><a href=\"/articles/").append(random.nextInt(pageCount)).append("\">More on ")
+                    .append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append("</a></li>");
+        }
+        html.append("</ul><div class=\"ad\">Advertisement</div></aside></main>")
+                .append("<footer><p>Copyright Example News. All rights reserved.</p><a href=\"/privacy\">Privacy</a></footer>")
+                .append("</body></html>");
+        return html.toString();
+    }
+
+    private static String sentence(Random random, String topic) {
+        StringBuilder sentence = new StringBuilder(120);
+        int words = 10 + random.nextInt(12);
+        for (int w = 0; w < words; w++) {
+            String word;
+            if (w == 0) word = capitalize(topic);
+            else if (random.nextInt(3) == 0) word = VOCABULARY[random.nextInt(VOCABULARY.length)];
+            else word = FILLER[random.nextInt(FILLER.length)];
+            sentence.append(word).append(w + 1 < words ? " " : ".");
+        }
+        return sentence.toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    static void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        servers.forEach(server -> server.stop(0));
+        executor.shutdownNow();
+    }
+}
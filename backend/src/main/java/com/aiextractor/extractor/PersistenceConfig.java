@@ -0,0 +1,15 @@
+package com.aiextractor.extractor;
+
+import com.aiextractor.extractor.services.SchemaMigrator;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PersistenceConfig {
+    // Hibernate starts only after pending schema migrations have run
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDependsOnSchemaMigrator() {
+        return new EntityManagerFactoryDependsOnPostProcessor(SchemaMigrator.class);
+    }
+}
@@ -1,20 +1,48 @@
 package com.aiextractor.extractor.controllers;
 
-import com.aiextractor.extractor.models.SummaryResponse;
-import com.aiextractor.extractor.services.HtmlExtractorService;
-import com.aiextractor.extractor.services.SummarizationService;
+import com.aiextractor.extractor.models.ExtractionJob;
+import com.aiextractor.extractor.services.BatchExtractionService;
+import com.aiextractor.extractor.services.ContentBlobStore;
+import com.aiextractor.extractor.services.ExtractionException;
+import com.aiextractor.extractor.services.ExtractionJobService;
+import com.aiextractor.extractor.services.ExtractedContentExporter;
+import com.aiextractor.extractor.services.ExtractedContentImporter;
+import com.aiextractor.extractor.services.ExtractedContentListingService;
+import com.aiextractor.extractor.services.NearDuplicateService;
+import com.aiextractor.extractor.services.ExtractionService;
+import com.aiextractor.extractor.services.ExtractionStreamService;
+import com.aiextractor.extractor.services.SearchIndexService;
+import com.aiextractor.extractor.utils.ContentSearchIndex;
 import com.aiextractor.extractor.models.ExtractedContent;
+import com.aiextractor.extractor.models.ExtractedContentRecord;
 import com.aiextractor.extractor.models.ExtractedContentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.net.URI;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -27,60 +55,177 @@ import org.springframework.data.domain.Sort;
 @RequestMapping("/api")
 @CrossOrigin(origins = "*") // TODO: Restrict to frontend origin in production
 public class ExtractController {
+    private static final Logger log = LoggerFactory.getLogger(ExtractController.class);
+
     @Autowired
-    private HtmlExtractorService htmlExtractorService;
+    private ExtractedContentRepository extractedContentRepository;
     @Autowired
-    private SummarizationService summarizationService;
+    private ExtractionService extractionService;
     @Autowired
-    private ExtractedContentRepository extractedContentRepository;
+    private ExtractionJobService extractionJobService;
+    @Autowired
+    private ExtractionStreamService extractionStreamService;
+    @Autowired
+    private BatchExtractionService batchExtractionService;
+    @Autowired
+    private SearchIndexService searchIndexService;
+    @Autowired
+    private ExtractedContentListingService listingService;
+    @Autowired
+    private ContentBlobStore contentBlobStore;
+    @Autowired
+    private NearDuplicateService nearDuplicateService;
+    @Autowired
+    private ExtractedContentExporter extractedContentExporter;
+    @Autowired
+    private ExtractedContentImporter extractedContentImporter;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${extractor.jobs.retry-after-seconds:5}")
+    private int retryAfterSeconds;
+    @Value("${extractor.batch.max-urls:1000}")
+    private int maxBatchUrls;
 
     /**
      * POST /api/extract
-     * Input: { url: string }
+     * Input: { url: string, async?: boolean } (async may also be passed as ?async=true)
      * Output: { summary: string, keyPoints: [string, ...] }
      * Also saves the extracted content to the database.
+     * With async=true the work is queued and 202 { jobId, status } is returned immediately;
+     * poll GET /api/jobs/{id} or stream GET /api/jobs/{id}/events for the result.
      */
     @PostMapping("/extract")
-    public ResponseEntity<?> extractContent(@RequestBody Map<String, String> body) {
+    public ResponseEntity<?> extractContent(@RequestBody Map<String, String> body,
+                                            @RequestParam(defaultValue = "false") boolean async) {
         String url = body.get("url");
         if (url == null || !isValidHttpUrl(url)) {
+            countError("invalid_url");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Invalid or missing URL. Must start with http:// or https://"));
         }
+        if (async || Boolean.parseBoolean(body.get("async"))) {
+            return submitJob(url);
+        }
         try {
-            String text = htmlExtractorService.extractMainContent(url);
-            if (text == null || text.isBlank()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "No extractable content found on the page."));
-            }
-            // Save extracted content to DB
-            ExtractedContent entity = new ExtractedContent();
-            entity.setUrl(url);
-            entity.setContent(text);
-            extractedContentRepository.save(entity);
-            Map<String, Object> summaryResult = summarizationService.summarize(text, 5);
-            String summary = (String) summaryResult.get("summary");
-            List<String> keyPoints = (List<String>) summaryResult.get("keyPoints");
-            entity.setSummary(summary);
-            extractedContentRepository.save(entity);
-            return ResponseEntity.ok(new SummaryResponse(summary, keyPoints));
-        } catch (MalformedURLException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Malformed URL."));
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(Map.of("error", "Failed to fetch or parse the page. It may be unavailable or JavaScript-heavy."));
+            return ResponseEntity.ok(extractionService.extractAndStore(url));
+        } catch (ExtractionException e) {
+            return ResponseEntity.status(e.getStatus()).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
+            countError("unexpected");
+            log.error("Extraction of {} failed", url, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", "Unexpected error: " + e.getMessage()));
         }
     }
 
+    // Helper: Count a request that failed before or outside the pipeline's own error handling
+    private void countError(String category) {
+        Counter.builder("extractor.errors")
+                .description("Failed extractions by cause")
+                .tag("category", category)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // Helper: Queue an async job, or tell the client to back off when the queue is full
+    private ResponseEntity<?> submitJob(String url) {
+        try {
+            ExtractionJob job = extractionJobService.submit(url);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create("/api/jobs/" + job.getId()))
+                    .body(Map.of("jobId", job.getId(), "status", job.getStatus()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .body(Map.of("error", "Too many extraction jobs queued. Retry later."));
+        }
+    }
+
+    /**
+     * GET /api/extract/stream?url=...
+     * Server-sent events as the extraction progresses:
+     * fetched { url, fromCache }, extracted { textLength }, chunk { index, summary, source } per
+     * summarized chunk, then summary { summary, keyPoints } or error { status, error }.
+     * Closing the connection cancels the extraction; nothing is saved unless the summary is sent.
+     */
+    @GetMapping(value = "/extract/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamExtraction(@RequestParam(required = false) String url) {
+        if (url == null || !isValidHttpUrl(url)) {
+            countError("invalid_url");
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid or missing URL. Must start with http:// or https://");
+        }
+        try {
+            return ResponseEntity.ok(extractionStreamService.open(url));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .build();
+        }
+    }
+
+    /**
+     * POST /api/extract/batch
+     * Input: { urls: [string, ...] }
+     * Output: application/x-ndjson, one line per URL in completion order:
+     * { url, summary, keyPoints } or { url, status, error }
+     * A failing URL never fails the batch. Successful results are saved to the database.
+     */
+    @PostMapping("/extract/batch")
+    public ResponseEntity<StreamingResponseBody> extractBatch(@RequestBody Map<String, List<String>> body) {
+        List<String> urls = body.get("urls");
+        if (urls == null || urls.isEmpty()) {
+            return streamingError("Missing urls. Expected { \"urls\": [...] }");
+        }
+        if (urls.size() > maxBatchUrls) {
+            return streamingError("Too many URLs. At most " + maxBatchUrls + " per batch.");
+        }
+        StreamingResponseBody stream = out -> {
+            try {
+                batchExtractionService.run(urls, result -> {
+                    out.write(objectMapper.writeValueAsBytes(result));
+                    out.write('\n');
+                    out.flush();
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(stream);
+    }
+
+    // Helper: A 400 { error } body; streaming handlers can only return StreamingResponseBody
+    private ResponseEntity<StreamingResponseBody> streamingError(String message) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(objectMapper.writeValueAsBytes(Map.of("error", message))));
+    }
+
     /**
      * GET /api/extracted
      * Returns paginated and searchable extracted content from the database.
      * Query params: page (0-based), size, search
+     * With the search index enabled, results are ranked by relevance and each item carries a
+     * "highlight" snippet of the matching passages.
+     * With view=list: { items: [{ id, url, snippet }], nextCursor, total? } instead, paged by
+     * passing nextCursor back as cursor; includeTotal=true adds a (briefly cached) total count.
+     * Fetch the full entry with GET /api/extracted/{id}.
      */
     @GetMapping("/extracted")
-    public ResponseEntity<Map<String, Object>> getAllExtractedContent(
+    public ResponseEntity<?> getAllExtractedContent(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) throws IOException {
+        if ("list".equals(view)) {
+            return listExtractedContent(search, cursor, size, includeTotal);
+        }
+        if (search != null && !search.isBlank() && searchIndexService.isEnabled()) {
+            return ResponseEntity.ok(searchExtractedContent(search, page, size));
+        }
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
         Page<ExtractedContent> result;
         if (search != null && !search.isBlank()) {
@@ -105,6 +250,133 @@ public class ExtractController {
         return ResponseEntity.ok(response);
     }
 
+    // Helper: Keyset-paginated id/url/snippet listing
+    private ResponseEntity<?> listExtractedContent(String search, Long cursor, int size, boolean includeTotal) {
+        if (search != null && !search.isBlank()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "search is not supported with view=list."));
+        }
+        if (size < 1 || size > 100) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "size must be between 1 and 100."));
+        }
+        ExtractedContentListingService.Listing listing = listingService.list(cursor, size);
+        // LinkedHashMap: nextCursor is null on the last page
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("items", listing.items());
+        response.put("nextCursor", listing.nextCursor());
+        if (includeTotal) {
+            response.put("total", listingService.totalCount());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // Helper: One page of ranked search hits, loaded from the database in rank order
+    private Map<String, Object> searchExtractedContent(String search, int page, int size) throws IOException {
+        ContentSearchIndex.Hits hits = searchIndexService.search(search, page, size);
+        Map<Long, ExtractedContent> byId = new HashMap<>();
+        extractedContentRepository.findAllById(hits.ids()).forEach(item -> byId.put(item.getId(), item));
+        List<Map<String, Object>> contentList = new ArrayList<>();
+        for (Long id : hits.ids()) {
+            ExtractedContent item = byId.get(id);
+            if (item == null) continue;
+            String highlight = searchIndexService.highlight(search, item.getContent());
+            contentList.add(Map.of(
+                "id", item.getId(),
+                "url", item.getUrl(),
+                "summary", item.getSummary(),
+                "content", item.getContent(),
+                "highlight", highlight != null ? highlight : ""
+            ));
+        }
+        return Map.of(
+            "content", contentList,
+            "totalElements", hits.total(),
+            "totalPages", size > 0 ? (int) ((hits.total() + size - 1) / size) : 0,
+            "page", page,
+            "size", size
+        );
+    }
+
+    /**
+     * POST /api/extracted/search-index/rebuild
+     * Rebuilds the full-text search index from the database.
+     * Output: { indexed: number }
+     */
+    @PostMapping("/extracted/search-index/rebuild")
+    public ResponseEntity<?> rebuildSearchIndex() throws IOException {
+        if (!searchIndexService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Search index is disabled."));
+        }
+        return ResponseEntity.ok(Map.of("indexed", searchIndexService.rebuild()));
+    }
+
+    /**
+     * POST /api/extracted/storage/migrate
+     * Moves content still stored inline into compressed blobs and deletes unreferenced blobs.
+     * Output: { migrated: number, pruned: number }
+     */
+    @PostMapping("/extracted/storage/migrate")
+    public ResponseEntity<?> migrateContentStorage() {
+        if (!contentBlobStore.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Blob storage is disabled."));
+        }
+        ContentBlobStore.Migration migration = contentBlobStore.migrate();
+        return ResponseEntity.ok(Map.of("migrated", migration.migrated(), "pruned", migration.pruned()));
+    }
+
+    /**
+     * GET /api/extracted/export?format=ndjson|csv
+     * Streams every stored entry in id order, as one JSON object per line (ndjson, the default)
+     * or as CSV with a header row. Fields: id, url, content, summary, keyPoints (key_points in
+     * CSV, a JSON array), createdAt. Rows are read through a database cursor, so memory use does
+     * not depend on the table size.
+     */
+    @GetMapping("/extracted/export")
+    public ResponseEntity<StreamingResponseBody> exportExtractedContent(@RequestParam(defaultValue = "ndjson") String format) {
+        ExtractedContentRecord.Format fileFormat = ExtractedContentRecord.Format.of(format);
+        if (fileFormat == null) {
+            return streamingError("Unknown format. Use ndjson or csv.");
+        }
+        StreamingResponseBody stream = out -> extractedContentExporter.export(fileFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fileFormat.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"extracted-content." + fileFormat.extension() + "\"")
+                .body(stream);
+    }
+
+    /**
+     * POST /api/extracted/import?format=ndjson|csv
+     * Input: a file in the export format as the request body; ids in it are ignored and
+     * rows get new ones
+     * Output: { imported: number }
+     * Rows are stored in batches while the body streams in (PostgreSQL COPY, otherwise batched
+     * inserts). A malformed record, or one without url, summary or content, stops the import with
+     * 400 naming the record; the batches before it stay stored.
+     */
+    @PostMapping("/extracted/import")
+    public ResponseEntity<?> importExtractedContent(@RequestParam(defaultValue = "ndjson") String format,
+                                                    InputStream body) throws IOException {
+        ExtractedContentRecord.Format fileFormat = ExtractedContentRecord.Format.of(format);
+        if (fileFormat == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Unknown format. Use ndjson or csv."));
+        }
+        try {
+            return ResponseEntity.ok(Map.of("imported", extractedContentImporter.importRecords(fileFormat, body)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/extracted/{id}
+     * Returns one stored entry with its full content and summary.
+     */
+    @GetMapping("/extracted/{id}")
+    public ResponseEntity<?> getExtractedContent(@PathVariable Long id) {
+        return extractedContentRepository.findById(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Not found")));
+    }
+
     /**
      * PUT /api/extracted/{id}
      * Edit extracted content (url and content fields).
@@ -117,7 +389,13 @@ public class ExtractController {
             if (body.containsKey("url")) entity.setUrl(body.get("url"));
             if (body.containsKey("content")) entity.setContent(body.get("content"));
             if (body.containsKey("summary")) entity.setSummary(body.get("summary"));
-            extractedContentRepository.save(entity);
+            // The blob and the row pointing at it commit together
+            transactionTemplate.executeWithoutResult(status -> {
+                contentBlobStore.externalize(List.of(entity));
+                extractedContentRepository.save(entity);
+            });
+            searchIndexService.indexSaved(entity);
+            nearDuplicateService.indexSaved(entity);
             return ResponseEntity.ok(entity);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Not found"));
@@ -134,6 +412,8 @@ public class ExtractController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Not found"));
         }
         extractedContentRepository.deleteById(id);
+        searchIndexService.indexDeleted(id);
+        nearDuplicateService.indexDeleted(id);
         return ResponseEntity.ok(Map.of("message", "Deleted"));
     }
 
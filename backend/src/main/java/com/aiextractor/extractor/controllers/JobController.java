@@ -0,0 +1,51 @@
+package com.aiextractor.extractor.controllers;
+
+import com.aiextractor.extractor.models.ExtractionJob;
+import com.aiextractor.extractor.services.ExtractionJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * REST controller for asynchronous extraction jobs created with POST /api/extract?async=true.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*") // TODO: Restrict to frontend origin in production
+public class JobController {
+    @Autowired
+    private ExtractionJobService extractionJobService;
+
+    /**
+     * GET /api/jobs/{id}
+     * Output: { id, url, status: QUEUED|RUNNING|SUCCEEDED|FAILED, result?: { summary, keyPoints }, error? }
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable String id) {
+        ExtractionJob job = extractionJobService.get(id);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Not found"));
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * GET /api/jobs/{id}/events
+     * Server-sent events: one event per status change (queued, running, succeeded, failed),
+     * each carrying the job as JSON. The stream ends once the job has finished.
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJob(@PathVariable String id) {
+        ExtractionJob job = extractionJobService.get(id);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not found");
+        }
+        return extractionJobService.subscribe(job);
+    }
+}
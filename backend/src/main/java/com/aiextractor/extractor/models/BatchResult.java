@@ -0,0 +1,40 @@
+package com.aiextractor.extractor.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One NDJSON record of POST /api/extract/batch: either the summary and key points for the URL,
+ * or the error that URL failed with.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult {
+    private String url;
+    private String summary;
+    private List<String> keyPoints;
+    private String error;
+    private Integer status;
+
+    public static BatchResult success(String url, SummaryResponse response) {
+        BatchResult result = new BatchResult();
+        result.url = url;
+        result.summary = response.getSummary();
+        result.keyPoints = response.getKeyPoints();
+        return result;
+    }
+
+    public static BatchResult failure(String url, int status, String error) {
+        BatchResult result = new BatchResult();
+        result.url = url;
+        result.status = status;
+        result.error = error;
+        return result;
+    }
+
+    public String getUrl() { return url; }
+    public String getSummary() { return summary; }
+    public List<String> getKeyPoints() { return keyPoints; }
+    public String getError() { return error; }
+    public Integer getStatus() { return status; }
+}
@@ -0,0 +1,56 @@
+package com.aiextractor.extractor.models;
+
+import com.aiextractor.extractor.utils.ContentCodec;
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Compressed article text, stored once per distinct content and referenced by hash from
+ * ExtractedContent.contentHash. Rows are inserted by ContentBlobStore, never through JPA.
+ */
+@Entity
+@Immutable
+// A page of rows whose content is read loads all their blobs with one query
+@BatchSize(size = 50)
+public class ContentBlob {
+    /** Characters of the text kept uncompressed, for listing snippets. */
+    public static final int PREVIEW_LENGTH = 500;
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    private String codec;
+
+    @Column(name = "raw_bytes")
+    private int rawBytes;
+
+    @Column(length = PREVIEW_LENGTH)
+    private String preview;
+
+    @Column(columnDefinition = "BYTEA")
+    private byte[] data;
+
+    @Transient
+    private String text;
+
+    public String getHash() { return hash; }
+
+    public String getCodec() { return codec; }
+
+    public int getRawBytes() { return rawBytes; }
+
+    public String getPreview() { return preview; }
+
+    /**
+     * The decompressed text; decompressed on first call.
+     */
+    public String getText() {
+        if (text == null) {
+            if (!ContentCodec.DEFLATE.equals(codec)) throw new IllegalStateException("Unknown codec " + codec + " for blob " + hash);
+            text = ContentCodec.decompress(data, rawBytes);
+        }
+        return text;
+    }
+}
@@ -1,31 +1,108 @@
 package com.aiextractor.extractor.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import com.aiextractor.extractor.utils.UrlNormalizer;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "extracted_content_url_key_created_at", columnList = "url_key, created_at"))
 public class ExtractedContent {
+    /** Ids handed out per sequence call; also the JDBC insert batch granularity. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final String ID_SEQUENCE = "extracted_content_seq";
+
+    // Pooled sequence ids: Hibernate knows the id before the insert, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "extracted_content_id")
+    @SequenceGenerator(name = "extracted_content_id", sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String url;
 
+    // UrlNormalizer form of url, kept in step by setUrl; longer than url since normalizing can add a scheme or "/".
+    // Null for rows stored before the column existed
+    @JsonIgnore
+    @Column(name = "url_key", length = 512)
+    private String urlKey;
+
+    // Null when the text lives in a ContentBlob (extractor.storage.blobs.enabled)
     @Column(columnDefinition = "TEXT")
     private String content;
 
+    @JsonIgnore
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Loaded only when getContent() needs it
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "content_hash", insertable = false, updatable = false)
+    private ContentBlob blob;
+
+    // Blob text stored or already read through this instance
+    @Transient
+    private String blobText;
+
     @Column(columnDefinition = "TEXT")
     private String summary;
 
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<String> keyPoints;
+
+    // Null for rows stored before the column existed
+    @Column(name = "created_at")
+    private Instant createdAt;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
     public String getUrl() { return url; }
-    public void setUrl(String url) { this.url = url; }
+    public void setUrl(String url) {
+        this.url = url;
+        this.urlKey = url == null ? null : UrlNormalizer.normalize(url);
+    }
+
+    public String getUrlKey() { return urlKey; }
+
+    /**
+     * The article text, read (and decompressed) from its blob if it was stored in one.
+     */
+    public String getContent() {
+        if (content != null || contentHash == null) return content;
+        if (blobText == null && blob != null) blobText = blob.getText();
+        return blobText;
+    }
+    public void setContent(String content) {
+        this.content = content;
+        this.contentHash = null;
+        this.blob = null;
+        this.blobText = null;
+    }
 
-    public String getContent() { return content; }
-    public void setContent(String content) { this.content = content; }
+    public String getContentHash() { return contentHash; }
+
+    /**
+     * Points the row at the blob holding its text and drops the inline copy; getContent()
+     * keeps returning the text.
+     */
+    public void moveContentToBlob(String hash) {
+        this.blobText = getContent();
+        this.content = null;
+        this.contentHash = hash;
+        this.blob = null;
+    }
 
     public String getSummary() { return summary; }
     public void setSummary(String summary) { this.summary = summary; }
+
+    public List<String> getKeyPoints() { return keyPoints; }
+    public void setKeyPoints(List<String> keyPoints) { this.keyPoints = keyPoints; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
 } 
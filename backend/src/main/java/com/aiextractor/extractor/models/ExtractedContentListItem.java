@@ -0,0 +1,10 @@
+package com.aiextractor.extractor.models;
+
+/**
+ * Row of the lightweight history listing: only the id, the url and the start of the content.
+ */
+public interface ExtractedContentListItem {
+    Long getId();
+    String getUrl();
+    String getSnippet();
+}
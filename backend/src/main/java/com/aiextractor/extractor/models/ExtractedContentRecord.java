@@ -0,0 +1,61 @@
+package com.aiextractor.extractor.models;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One row of GET /api/extracted/export and POST /api/extracted/import: an NDJSON line, or a CSV
+ * record with the columns in COLUMNS. The id is informational on import; rows get new ids.
+ */
+public record ExtractedContentRecord(Long id, String url, String content, String summary,
+                                     List<String> keyPoints, Instant createdAt) {
+    /**
+     * File formats of export and import.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() { return mediaType; }
+        public String extension() { return extension; }
+
+        /**
+         * The format with this extension (case-insensitive), or null.
+         */
+        public static Format of(String extension) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(extension)) return format;
+            }
+            return null;
+        }
+    }
+
+    /** CSV header; key_points holds the JSON array and created_at an ISO-8601 instant. */
+    public static final List<String> COLUMNS = List.of("id", "url", "content", "summary", "key_points", "created_at");
+
+    public static ExtractedContentRecord of(ExtractedContent entity) {
+        return new ExtractedContentRecord(entity.getId(), entity.getUrl(), entity.getContent(), entity.getSummary(),
+                entity.getKeyPoints(), entity.getCreatedAt());
+    }
+
+    /**
+     * A new, unsaved row with this record's fields.
+     */
+    public ExtractedContent toEntity() {
+        ExtractedContent entity = new ExtractedContent();
+        entity.setUrl(url);
+        entity.setContent(content);
+        entity.setSummary(summary);
+        entity.setKeyPoints(keyPoints);
+        entity.setCreatedAt(createdAt);
+        return entity;
+    }
+}
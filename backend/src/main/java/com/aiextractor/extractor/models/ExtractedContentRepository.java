@@ -1,10 +1,64 @@
 package com.aiextractor.extractor.models;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 public interface ExtractedContentRepository extends JpaRepository<ExtractedContent, Long> {
+    /** Rows per round trip when reading through streamAllWithBlobs. */
+    int STREAM_FETCH_SIZE = 500;
+
     // Custom queries if needed
     Page<ExtractedContent> findByUrlContainingIgnoreCaseOrContentContainingIgnoreCase(String url, String content, Pageable pageable);
-} 
\ No newline at end of file
+
+    /**
+     * Newest rows with an id below the cursor, without loading the content and summary columns.
+     * Pass the page size through the pageable; no count query is run.
+     */
+    @Query("select e.id as id, e.url as url,"
+            + " coalesce(substring(e.content, 1, :snippetLength), substring(b.preview, 1, :snippetLength)) as snippet"
+            + " from ExtractedContent e left join e.blob b where e.id < :cursor order by e.id desc")
+    List<ExtractedContentListItem> findListItemsBefore(@Param("cursor") long cursor,
+                                                       @Param("snippetLength") int snippetLength,
+                                                       Pageable pageable);
+
+    /**
+     * Same as findAll, with each row's content blob loaded in the same query.
+     */
+    @Query(value = "select e from ExtractedContent e left join fetch e.blob",
+            countQuery = "select count(e) from ExtractedContent e")
+    Page<ExtractedContent> findAllWithBlobs(Pageable pageable);
+
+    /**
+     * Every row in id order with its content blob, read through a forward-only cursor that
+     * fetches STREAM_FETCH_SIZE rows at a time. Consume inside a transaction (PostgreSQL only
+     * uses a cursor then), close the stream, and clear the persistence context as rows go by.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")})
+    @Query("select e from ExtractedContent e left join fetch e.blob order by e.id")
+    Stream<ExtractedContent> streamAllWithBlobs();
+
+    /**
+     * Rows whose text is still stored inline.
+     */
+    List<ExtractedContent> findByContentHashIsNullAndContentIsNotNull(Pageable pageable);
+
+    /**
+     * Newest row stored after the given time for any spelling of the URL with this
+     * UrlNormalizer key, if any.
+     */
+    Optional<ExtractedContent> findFirstByUrlKeyAndCreatedAtAfterOrderByCreatedAtDesc(String urlKey, Instant after);
+}
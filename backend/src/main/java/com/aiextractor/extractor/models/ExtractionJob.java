@@ -0,0 +1,65 @@
+package com.aiextractor.extractor.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * State of an asynchronous extraction job, as returned by GET /api/jobs/{id}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ExtractionJob {
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    private final String id;
+    private final String url;
+    private final Instant createdAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile SummaryResponse result;
+    private volatile String error;
+    private volatile int errorStatus;
+
+    public ExtractionJob(String id, String url) {
+        this.id = id;
+        this.url = url;
+        this.createdAt = Instant.now();
+    }
+
+    public String getId() { return id; }
+    public String getUrl() { return url; }
+    public Instant getCreatedAt() { return createdAt; }
+    public Status getStatus() { return status; }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public SummaryResponse getResult() { return result; }
+    public String getError() { return error; }
+
+    @JsonIgnore
+    public int getErrorStatus() { return errorStatus; }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    public void markRunning() {
+        this.startedAt = Instant.now();
+        this.status = Status.RUNNING;
+    }
+
+    public void succeed(SummaryResponse result) {
+        this.result = result;
+        this.finishedAt = Instant.now();
+        this.status = Status.SUCCEEDED;
+    }
+
+    public void fail(int errorStatus, String error) {
+        this.errorStatus = errorStatus;
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+}
@@ -0,0 +1,57 @@
+package com.aiextractor.extractor.models;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A memoized summary, keyed by the hash of the normalized text it was computed from.
+ * Records are insert-only, so new ones skip the select-before-insert of a merge.
+ */
+@Entity
+@Table(name = "summary_cache")
+public class SummaryRecord implements Persistable<String> {
+    @Id
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    private List<String> keyPoints;
+
+    private Instant createdAt;
+
+    @Transient
+    private boolean isNew = true;
+
+    public SummaryRecord() {}
+
+    public SummaryRecord(String contentHash, String summary, List<String> keyPoints) {
+        this.contentHash = contentHash;
+        this.summary = summary;
+        this.keyPoints = keyPoints;
+        this.createdAt = Instant.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { this.isNew = false; }
+
+    @Override
+    public String getId() { return contentHash; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    // Getters
+    public String getContentHash() { return contentHash; }
+    public String getSummary() { return summary; }
+    public List<String> getKeyPoints() { return keyPoints; }
+    public Instant getCreatedAt() { return createdAt; }
+}
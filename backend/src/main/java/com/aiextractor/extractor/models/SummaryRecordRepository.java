@@ -0,0 +1,6 @@
+package com.aiextractor.extractor.models;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SummaryRecordRepository extends JpaRepository<SummaryRecord, String> {
+}
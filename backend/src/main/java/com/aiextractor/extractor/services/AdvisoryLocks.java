@@ -0,0 +1,111 @@
+package com.aiextractor.extractor.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Cluster-wide named locks on PostgreSQL session advisory locks, for work that only one replica
+ * should do at a time. A held lock keeps one pooled connection until it is released. On other
+ * databases locking is not supported and callers fall back to node-local coordination.
+ */
+@Component
+public class AdvisoryLocks {
+    private static final Logger log = LoggerFactory.getLogger(AdvisoryLocks.class);
+    private static final long POLL_MILLIS = 50;
+
+    /**
+     * A held lock; closing it releases the lock and returns the connection to the pool.
+     */
+    public interface Lock extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final DataSource dataSource;
+    // Detected on first use, so creating this bean needs no database connection
+    private volatile Boolean supported;
+
+    public AdvisoryLocks(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public boolean isSupported() {
+        Boolean detected = supported;
+        if (detected == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                detected = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            } catch (SQLException e) {
+                throw new CannotGetJdbcConnectionException("Could not detect the database", e);
+            }
+            supported = detected;
+        }
+        return detected;
+    }
+
+    /**
+     * Waits up to the timeout for the lock.
+     * @return The held lock, or null if it was not acquired in time
+     */
+    public Lock tryLock(String name, Duration timeout) throws SQLException, InterruptedException {
+        if (!isSupported()) throw new IllegalStateException("Advisory locks need PostgreSQL");
+        long key = keyOf(name);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Connection connection = dataSource.getConnection();
+        try {
+            // Polling pg_try_advisory_lock rather than blocking in pg_advisory_lock keeps the wait interruptible
+            while (!tryLock(connection, key)) {
+                if (System.nanoTime() >= deadline) {
+                    connection.close();
+                    return null;
+                }
+                Thread.sleep(POLL_MILLIS);
+            }
+        } catch (SQLException | InterruptedException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        return () -> unlock(connection, key);
+    }
+
+    private static boolean tryLock(Connection connection, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("select pg_try_advisory_lock(?)")) {
+            statement.setLong(1, key);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection, long key) {
+        try (connection; PreparedStatement statement = connection.prepareStatement("select pg_advisory_unlock(?)")) {
+            statement.setLong(1, key);
+            statement.execute();
+        } catch (SQLException e) {
+            // Usually a broken connection; the lock ends with its session
+            log.warn("Releasing advisory lock {} failed", key, e);
+        }
+    }
+
+    // Helper: 64-bit lock key from the name (first 8 bytes of its SHA-256)
+    private static long keyOf(String name) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(name.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
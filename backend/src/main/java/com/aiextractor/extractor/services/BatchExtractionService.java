@@ -0,0 +1,170 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.BatchResult;
+import com.aiextractor.extractor.models.ExtractedContent;
+import com.aiextractor.extractor.utils.HostConcurrencyLimiter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many extractions concurrently and hands each result back as soon as it is ready.
+ * Concurrency is capped globally (shared by all batches) and per host, and stored rows are
+ * written in groups rather than one save per URL.
+ */
+@Service
+public class BatchExtractionService {
+    /**
+     * Receives results in completion order. Returning normally means the record was delivered.
+     */
+    public interface ResultSink {
+        void accept(BatchResult result) throws IOException;
+    }
+
+    // A finished URL: the record to stream and, on success, the row to store
+    private record Completed(BatchResult result, ExtractedContent entity) {}
+
+    private final ExtractionService extractionService;
+    private final ExtractedContentWriter extractedContentWriter;
+    private final ExecutorService executor;
+    private final Semaphore globalPermits;
+    private final HostConcurrencyLimiter hostLimiter;
+    private final int insertBatchSize;
+
+    public BatchExtractionService(ExtractionService extractionService,
+                                  ExtractedContentWriter extractedContentWriter,
+                                  @Value("${extractor.batch.concurrency:8}") int concurrency,
+                                  @Value("${extractor.batch.per-host-concurrency:2}") int perHostConcurrency,
+                                  @Value("${extractor.batch.insert-batch-size:50}") int insertBatchSize) {
+        this.extractionService = extractionService;
+        this.extractedContentWriter = extractedContentWriter;
+        this.globalPermits = new Semaphore(concurrency);
+        this.hostLimiter = new HostConcurrencyLimiter(perHostConcurrency);
+        this.insertBatchSize = insertBatchSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        // Never more than `concurrency` tasks are submitted at once, the global permits see to that
+        this.executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "batch-extraction-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Extracts every URL and passes each result (or inline error) to the sink as it completes.
+     * URLs are dispatched round-robin across hosts so one slow host cannot hold up the others.
+     * If the sink fails (client gone), no new URLs are started; running ones still finish and
+     * are stored.
+     */
+    public void run(List<String> urls, ResultSink sink) throws IOException, InterruptedException {
+        Map<String, Deque<String>> pendingByHost = new LinkedHashMap<>();
+        BlockingQueue<Completed> completed = new LinkedBlockingQueue<>();
+        List<ExtractedContent> toStore = new ArrayList<>();
+        IOException sinkFailure = null;
+        for (String url : urls) {
+            if (url == null || !isValidHttpUrl(url)) {
+                sinkFailure = deliver(sink, BatchResult.failure(url, HttpStatus.BAD_REQUEST.value(), "Invalid or missing URL. Must start with http:// or https://"), sinkFailure);
+                continue;
+            }
+            pendingByHost.computeIfAbsent(HostConcurrencyLimiter.hostOf(url), h -> new ArrayDeque<>()).add(url);
+        }
+        int inFlight = 0;
+        try {
+            while (inFlight > 0 || (sinkFailure == null && !pendingByHost.isEmpty())) {
+                if (sinkFailure == null) {
+                    inFlight += dispatch(pendingByHost, completed);
+                }
+                // Wake up periodically: permits may also be released by other batches
+                Completed done = completed.poll(20, TimeUnit.MILLISECONDS);
+                while (done != null) {
+                    inFlight--;
+                    if (done.entity() != null) {
+                        toStore.add(done.entity());
+                        if (toStore.size() >= insertBatchSize) {
+                            store(toStore);
+                        }
+                    }
+                    sinkFailure = deliver(sink, done.result(), sinkFailure);
+                    done = completed.poll();
+                }
+            }
+        } finally {
+            store(toStore);
+        }
+        if (sinkFailure != null) {
+            throw sinkFailure;
+        }
+    }
+
+    // Helper: Start every pending URL whose host and the global pool both have capacity
+    private int dispatch(Map<String, Deque<String>> pendingByHost, BlockingQueue<Completed> completed) {
+        int started = 0;
+        Iterator<Map.Entry<String, Deque<String>>> hosts = pendingByHost.entrySet().iterator();
+        while (hosts.hasNext()) {
+            Map.Entry<String, Deque<String>> entry = hosts.next();
+            String host = entry.getKey();
+            if (!hostLimiter.tryAcquire(host)) continue;
+            if (!globalPermits.tryAcquire()) {
+                hostLimiter.release(host);
+                break;
+            }
+            String url = entry.getValue().poll();
+            if (entry.getValue().isEmpty()) hosts.remove();
+            executor.execute(() -> {
+                try {
+                    ExtractionService.Extraction extraction = extractionService.extract(url);
+                    completed.add(new Completed(BatchResult.success(url, extraction.response()), extraction.entity()));
+                } catch (ExtractionException e) {
+                    completed.add(new Completed(BatchResult.failure(url, e.getStatus().value(), e.getMessage()), null));
+                } catch (Exception e) {
+                    completed.add(new Completed(BatchResult.failure(url, HttpStatus.INTERNAL_SERVER_ERROR.value(), "Unexpected error: " + e.getMessage()), null));
+                } finally {
+                    globalPermits.release();
+                    hostLimiter.release(host);
+                }
+            });
+            started++;
+        }
+        return started;
+    }
+
+    // Helper: Deliver a record unless the sink already failed; remember the first failure
+    private IOException deliver(ResultSink sink, BatchResult result, IOException previousFailure) {
+        if (previousFailure != null) return previousFailure;
+        try {
+            sink.accept(result);
+            return null;
+        } catch (IOException e) {
+            return e;
+        }
+    }
+
+    // Helper: Insert the buffered rows as one JDBC batch and clear the buffer
+    private void store(List<ExtractedContent> toStore) {
+        if (toStore.isEmpty()) return;
+        extractedContentWriter.storeAll(new ArrayList<>(toStore));
+        toStore.clear();
+    }
+
+    // Helper: Validate HTTP/S URL
+    private boolean isValidHttpUrl(String url) {
+        try {
+            URL u = new URL(url);
+            return u.getProtocol().equals("http") || u.getProtocol().equals("https");
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
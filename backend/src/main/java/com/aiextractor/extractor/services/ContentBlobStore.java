@@ -0,0 +1,162 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.ContentBlob;
+import com.aiextractor.extractor.models.ExtractedContent;
+import com.aiextractor.extractor.models.ExtractedContentRepository;
+import com.aiextractor.extractor.utils.ContentCodec;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Content-addressed storage for article text. With extractor.storage.blobs.enabled=true, each
+ * row's text is compressed into content_blob under its SHA-256 and the row keeps only the hash,
+ * so identical articles are stored once. Text is decompressed only when a row's content is read.
+ * Rows stored inline (before blobs were enabled) are moved over by {@link #migrate()}.
+ */
+@Service
+public class ContentBlobStore {
+    private static final Logger log = LoggerFactory.getLogger(ContentBlobStore.class);
+    private static final int MIGRATE_BATCH_SIZE = 500;
+
+    // A blob another row already stored is left as is
+    private static final String INSERT_BLOB = "insert into content_blob (hash, codec, raw_bytes, preview, data)"
+            + " values (?, ?, ?, ?, ?) on conflict do nothing";
+    // Conflicts with the ROW EXCLUSIVE lock every blob insert takes, even one that inserts nothing (PostgreSQL only)
+    private static final String LOCK_BLOBS = "lock table content_blob in share row exclusive mode";
+    private static final String DELETE_UNREFERENCED = "delete from content_blob b"
+            + " where not exists (select 1 from extracted_content e where e.content_hash = b.hash)";
+
+    /**
+     * Outcome of a migration: rows moved to blobs, and unreferenced blobs deleted.
+     */
+    public record Migration(long migrated, long pruned) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExtractedContentRepository extractedContentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Counter stored;
+    private final Counter deduplicated;
+    private final Counter rawBytes;
+    private final Counter compressedBytes;
+    private volatile Boolean postgres;
+
+    public ContentBlobStore(JdbcTemplate jdbcTemplate,
+                            ExtractedContentRepository extractedContentRepository,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${extractor.storage.blobs.enabled:false}") boolean enabled,
+                            @Value("${extractor.search.engine:lucene}") String searchEngine) {
+        // Blob text is compressed, so a LIKE query cannot see it and content search would silently miss those rows
+        if (enabled && "like".equalsIgnoreCase(searchEngine)) {
+            throw new IllegalStateException("extractor.storage.blobs.enabled=true needs extractor.search.engine=lucene; "
+                    + "extractor.search.engine=like cannot search blob-stored content");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.extractedContentRepository = extractedContentRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.stored = Counter.builder("extractor.storage.blobs").tag("outcome", "stored")
+                .description("Content blobs written, or skipped because identical content was already stored")
+                .register(meterRegistry);
+        this.deduplicated = Counter.builder("extractor.storage.blobs").tag("outcome", "deduplicated").register(meterRegistry);
+        this.rawBytes = Counter.builder("extractor.storage.blob.bytes").tag("form", "raw")
+                .description("UTF-8 bytes of text written to blobs, before and after compression")
+                .register(meterRegistry);
+        this.compressedBytes = Counter.builder("extractor.storage.blob.bytes").tag("form", "compressed").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Stores the text of rows about to be saved in blobs and points the rows at them. Does
+     * nothing when blob storage is disabled. Call in the transaction that saves the rows, before
+     * saving them: the blobs must exist first, and must not outlive a failed save or be pruned
+     * before the rows referring to them commit.
+     */
+    public void externalize(List<ExtractedContent> entities) {
+        if (!enabled) return;
+        Map<String, Object[]> blobs = new LinkedHashMap<>();
+        List<ExtractedContent> moved = new ArrayList<>(entities.size());
+        for (ExtractedContent entity : entities) {
+            if (entity.getContentHash() != null || entity.getContent() == null) continue;
+            String text = entity.getContent();
+            String hash = ContentCodec.hash(text);
+            if (!blobs.containsKey(hash)) {
+                byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+                byte[] data = ContentCodec.compress(raw);
+                String preview = text.substring(0, Math.min(text.length(), ContentBlob.PREVIEW_LENGTH));
+                blobs.put(hash, new Object[]{hash, ContentCodec.DEFLATE, raw.length, preview, data});
+                rawBytes.increment(raw.length);
+                compressedBytes.increment(data.length);
+            }
+            entity.moveContentToBlob(hash);
+            moved.add(entity);
+        }
+        if (blobs.isEmpty()) return;
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_BLOB, new ArrayList<>(blobs.values()));
+        int inserted = 0;
+        for (int count : counts) {
+            // Some drivers report SUCCESS_NO_INFO (-2) for batched rows; count those as stored
+            if (count != 0) inserted++;
+        }
+        stored.increment(inserted);
+        deduplicated.increment(moved.size() - inserted);
+    }
+
+    /**
+     * Moves every row still stored inline to blobs, in batches of one transaction each, then
+     * deletes blobs no row refers to any more (left by deleted or edited rows). While deleting,
+     * content_blob is locked against writers, so a blob a writer is about to refer to is not lost.
+     */
+    public Migration migrate() {
+        if (!enabled) throw new IllegalStateException("Blob storage is disabled");
+        long migrated = 0;
+        while (true) {
+            Integer batch = transactionTemplate.execute(status -> {
+                // Migrated rows leave the result, so the first page is always the next batch
+                List<ExtractedContent> rows = extractedContentRepository.findByContentHashIsNullAndContentIsNotNull(
+                        PageRequest.of(0, MIGRATE_BATCH_SIZE, Sort.by("id")));
+                externalize(rows);
+                return rows.size();
+            });
+            migrated += batch;
+            if (batch < MIGRATE_BATCH_SIZE) break;
+        }
+        // Waits for writers with blobs inserted to commit their rows, and holds off new ones until done
+        long pruned = transactionTemplate.execute(status -> {
+            if (isPostgres()) jdbcTemplate.execute(LOCK_BLOBS);
+            return (long) jdbcTemplate.update(DELETE_UNREFERENCED);
+        });
+        log.info("Moved {} rows to content blobs, deleted {} unreferenced blobs", migrated, pruned);
+        return new Migration(migrated, pruned);
+    }
+
+    // Helper: Whether the database is PostgreSQL, looked up on first use
+    private boolean isPostgres() {
+        Boolean detected = postgres;
+        if (detected == null) {
+            detected = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+            postgres = detected;
+        }
+        return detected;
+    }
+}
@@ -0,0 +1,124 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.ExtractedContent;
+import com.aiextractor.extractor.models.ExtractedContentRecord;
+import com.aiextractor.extractor.models.ExtractedContentRepository;
+import com.aiextractor.extractor.utils.Csv;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole extracted_content table as NDJSON or CSV. Rows come from a forward-only
+ * database cursor in one read-only transaction and are written as they arrive, and the
+ * persistence context is cleared after every fetch, so memory use does not grow with the table.
+ */
+@Service
+public class ExtractedContentExporter {
+    private final ExtractedContentRepository extractedContentRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    // One flush at the end rather than one per row
+    private final ObjectWriter recordWriter;
+    private final Counter exported;
+
+    public ExtractedContentExporter(ExtractedContentRepository extractedContentRepository,
+                                    EntityManager entityManager,
+                                    TransactionTemplate transactionTemplate,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry) {
+        this.extractedContentRepository = extractedContentRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.recordWriter = objectMapper.writerFor(ExtractedContentRecord.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.exported = transferCounter(meterRegistry, "export");
+    }
+
+    /**
+     * Writes every row in id order to out, which is flushed but not closed.
+     * @return The number of rows written
+     */
+    public long export(ExtractedContentRecord.Format format, OutputStream out) throws IOException {
+        try {
+            Long rows = readOnlyTransaction.execute(status -> {
+                try (Stream<ExtractedContent> stream = extractedContentRepository.streamAllWithBlobs()) {
+                    return format == ExtractedContentRecord.Format.CSV ? writeCsv(stream.iterator(), out) : writeNdjson(stream.iterator(), out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return rows;
+        } catch (UncheckedIOException e) {
+            // Usually the client went away
+            throw e.getCause();
+        }
+    }
+
+    private long writeNdjson(Iterator<ExtractedContent> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (rows.hasNext()) {
+                recordWriter.writeValue(generator, ExtractedContentRecord.of(rows.next()));
+                generator.writeRaw('\n');
+                rowWritten(++count);
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    private long writeCsv(Iterator<ExtractedContent> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 65536);
+        Csv.writeRow(writer, ExtractedContentRecord.COLUMNS);
+        while (rows.hasNext()) {
+            ExtractedContentRecord record = ExtractedContentRecord.of(rows.next());
+            Csv.writeRow(writer, Arrays.asList(
+                    String.valueOf(record.id()),
+                    record.url(),
+                    record.content(),
+                    record.summary(),
+                    record.keyPoints() == null ? null : objectMapper.writeValueAsString(record.keyPoints()),
+                    record.createdAt() == null ? null : record.createdAt().toString()));
+            rowWritten(++count);
+        }
+        writer.flush();
+        return count;
+    }
+
+    // Helper: Count the row and drop the rows of the last fetch from the persistence context
+    private void rowWritten(long count) {
+        exported.increment();
+        if (count % ExtractedContentRepository.STREAM_FETCH_SIZE == 0) entityManager.clear();
+    }
+
+    static Counter transferCounter(MeterRegistry registry, String direction) {
+        return Counter.builder("extractor.transfer.rows")
+                .description("Rows exported or imported in bulk")
+                .tag("direction", direction)
+                .register(registry);
+    }
+}
@@ -0,0 +1,256 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.ExtractedContent;
+import com.aiextractor.extractor.models.ExtractedContentRecord;
+import com.aiextractor.extractor.models.ExtractedContentRepository;
+import com.aiextractor.extractor.utils.Csv;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads rows in the export format (NDJSON or CSV) into extracted_content. The input is parsed
+ * as it streams in and written in batches of extractor.import.batch-size rows, each committed on
+ * its own: with PostgreSQL COPY, otherwise with JDBC-batched inserts. Imported rows get new ids
+ * and go through blob storage and the search and near-duplicate indexes like extracted ones.
+ */
+@Service
+public class ExtractedContentImporter {
+    private static final Logger log = LoggerFactory.getLogger(ExtractedContentImporter.class);
+
+    private static final String COPY = "copy extracted_content (id, url, url_key, content, content_hash, summary, key_points, created_at)"
+            + " from stdin with (format csv)";
+    // Each value v reserves the ids v - ID_ALLOCATION_SIZE + 1 .. v, as it does for Hibernate's pooled ids
+    private static final String RESERVE_IDS = "select nextval('" + ExtractedContent.ID_SEQUENCE + "') from generate_series(1, ?)";
+    private static final TypeReference<List<String>> KEY_POINTS = new TypeReference<>() {};
+
+    // Source of records; null at the end of the input
+    private interface RecordSource {
+        ExtractedContentRecord next() throws IOException;
+    }
+
+    private final ExtractedContentRepository extractedContentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ContentBlobStore contentBlobStore;
+    private final SearchIndexService searchIndexService;
+    private final NearDuplicateService nearDuplicateService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final boolean copyEnabled;
+    private final Counter imported;
+    // Detected on first use, so creating this bean needs no database connection
+    private volatile Boolean copySupported;
+
+    public ExtractedContentImporter(ExtractedContentRepository extractedContentRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    EntityManager entityManager,
+                                    ContentBlobStore contentBlobStore,
+                                    SearchIndexService searchIndexService,
+                                    NearDuplicateService nearDuplicateService,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${extractor.import.batch-size:1000}") int batchSize,
+                                    @Value("${extractor.import.copy:true}") boolean copyEnabled) {
+        this.extractedContentRepository = extractedContentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.contentBlobStore = contentBlobStore;
+        this.searchIndexService = searchIndexService;
+        this.nearDuplicateService = nearDuplicateService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.copyEnabled = copyEnabled;
+        this.imported = ExtractedContentExporter.transferCounter(meterRegistry, "import");
+    }
+
+    /**
+     * Imports every record of the input.
+     * @return The number of rows stored
+     * @throws IllegalArgumentException If a record is malformed; the batches before it stay stored
+     */
+    public long importRecords(ExtractedContentRecord.Format format, InputStream in) throws IOException {
+        RecordSource source = format == ExtractedContentRecord.Format.CSV ? csvSource(in) : ndjsonSource(in);
+        long start = System.nanoTime();
+        long stored = 0;
+        long recordNumber = 0;
+        List<ExtractedContent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            ExtractedContentRecord record;
+            try {
+                record = source.next();
+            } catch (JsonProcessingException e) {
+                throw invalid(recordNumber + 1, e.getOriginalMessage(), stored);
+            } catch (IllegalArgumentException | DateTimeException e) {
+                throw invalid(recordNumber + 1, e.getMessage(), stored);
+            }
+            if (record == null) break;
+            recordNumber++;
+            if (record.url() == null || record.url().isBlank()) throw invalid(recordNumber, "missing url", stored);
+            // Every stored row has both; listings and search results rely on it
+            if (record.summary() == null) throw invalid(recordNumber, "missing summary", stored);
+            if (record.content() == null) throw invalid(recordNumber, "missing content", stored);
+            batch.add(record.toEntity());
+            if (batch.size() == batchSize) {
+                stored += write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) stored += write(batch);
+        log.info("Imported {} rows in {} ms ({})", stored, (System.nanoTime() - start) / 1_000_000,
+                useCopy() ? "COPY" : "batched inserts");
+        return stored;
+    }
+
+    private boolean useCopy() {
+        if (!copyEnabled) return false;
+        Boolean supported = copySupported;
+        if (supported == null) {
+            supported = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+            copySupported = supported;
+        }
+        return supported;
+    }
+
+    private static IllegalArgumentException invalid(long recordNumber, String reason, long stored) {
+        return new IllegalArgumentException("Record " + recordNumber + ": " + reason + " (" + stored + " rows before it were imported)");
+    }
+
+    // Helper: Store one batch and its blobs in one transaction, then index it
+    private int write(List<ExtractedContent> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            contentBlobStore.externalize(batch);
+            if (useCopy()) {
+                copy(batch);
+            } else {
+                extractedContentRepository.saveAll(batch);
+                entityManager.flush();
+                // The rows stay reachable through batch; the persistence context must not keep them too
+                entityManager.clear();
+            }
+        });
+        searchIndexService.indexSavedAll(batch);
+        nearDuplicateService.indexSavedAll(batch);
+        imported.increment(batch.size());
+        return batch.size();
+    }
+
+    private void copy(List<ExtractedContent> batch) {
+        long[] ids = reserveIds(batch.size());
+        for (int i = 0; i < batch.size(); i++) batch.get(i).setId(ids[i]);
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> copy(connection, batch));
+    }
+
+    private long copy(Connection connection, List<ExtractedContent> batch) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY);
+        try {
+            StringWriter row = new StringWriter(4096);
+            for (ExtractedContent entity : batch) {
+                row.getBuffer().setLength(0);
+                Csv.writeRow(row, Arrays.asList(
+                        String.valueOf(entity.getId()),
+                        entity.getUrl(),
+                        entity.getUrlKey(),
+                        // Blob-stored rows keep only the hash
+                        entity.getContentHash() == null ? entity.getContent() : null,
+                        entity.getContentHash(),
+                        entity.getSummary(),
+                        entity.getKeyPoints() == null ? null : objectMapper.writeValueAsString(entity.getKeyPoints()),
+                        entity.getCreatedAt() == null ? null : entity.getCreatedAt().toString()));
+                byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+                copyIn.writeToCopy(bytes, 0, bytes.length);
+            }
+            return copyIn.endCopy();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (copyIn.isActive()) copyIn.cancelCopy();
+        }
+    }
+
+    private long[] reserveIds(int count) {
+        int blockSize = ExtractedContent.ID_ALLOCATION_SIZE;
+        long[] ids = new long[count];
+        int filled = 0;
+        while (filled < count) {
+            int blocks = (count - filled + blockSize - 1) / blockSize;
+            for (Long hi : jdbcTemplate.queryForList(RESERVE_IDS, Long.class, blocks)) {
+                // The sequence's first value reserves no full block
+                if (hi < blockSize) continue;
+                for (long id = hi - blockSize + 1; id <= hi && filled < count; id++) ids[filled++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private RecordSource ndjsonSource(InputStream in) throws IOException {
+        MappingIterator<ExtractedContentRecord> records = objectMapper.readerFor(ExtractedContentRecord.class).readValues(in);
+        return () -> records.hasNextValue() ? records.nextValue() : null;
+    }
+
+    private RecordSource csvSource(InputStream in) throws IOException {
+        Csv.RecordReader reader = new Csv.RecordReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = reader.next();
+        Map<String, Integer> columns = new HashMap<>();
+        if (header != null) {
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i) != null) columns.put(header.get(i).trim().toLowerCase(), i);
+            }
+        }
+        if (header != null && !columns.containsKey("url")) throw new IllegalArgumentException("CSV header has no url column");
+        return () -> {
+            List<String> fields;
+            // Skip blank lines
+            do {
+                fields = reader.next();
+            } while (fields != null && fields.size() == 1 && fields.get(0) == null);
+            if (fields == null) return null;
+            String keyPoints = field(fields, columns, "key_points");
+            String createdAt = field(fields, columns, "created_at");
+            return new ExtractedContentRecord(null,
+                    field(fields, columns, "url"),
+                    field(fields, columns, "content"),
+                    field(fields, columns, "summary"),
+                    keyPoints == null ? null : objectMapper.readValue(keyPoints, KEY_POINTS),
+                    createdAt == null ? null : Instant.parse(createdAt));
+        };
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+}
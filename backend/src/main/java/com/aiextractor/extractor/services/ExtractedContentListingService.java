@@ -0,0 +1,67 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.ExtractedContentListItem;
+import com.aiextractor.extractor.models.ExtractedContentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Keyset-paginated history listing. Each page is one index range scan on the primary key,
+ * however deep the client pages, and the total row count is only computed when asked for and
+ * then reused for a short while.
+ */
+@Service
+public class ExtractedContentListingService {
+    /**
+     * One page of the listing; nextCursor is null on the last page.
+     */
+    public record Listing(List<ExtractedContentListItem> items, Long nextCursor) {}
+
+    private final ExtractedContentRepository extractedContentRepository;
+    private final int snippetLength;
+    private final long countTtlMillis;
+
+    private volatile long cachedCount = -1;
+    private volatile long cachedCountAtMillis;
+
+    public ExtractedContentListingService(ExtractedContentRepository extractedContentRepository,
+                                          @Value("${extractor.list.snippet-length:200}") int snippetLength,
+                                          @Value("${extractor.list.count-cache-ttl:30s}") Duration countTtl) {
+        this.extractedContentRepository = extractedContentRepository;
+        this.snippetLength = snippetLength;
+        this.countTtlMillis = countTtl.toMillis();
+    }
+
+    /**
+     * Rows older than the cursor, newest first.
+     * @param cursor The nextCursor of the previous page, or null for the first page
+     */
+    public Listing list(Long cursor, int size) {
+        // Fetch one extra row to know whether another page follows
+        List<ExtractedContentListItem> rows = extractedContentRepository.findListItemsBefore(
+                cursor != null ? cursor : Long.MAX_VALUE, snippetLength, PageRequest.ofSize(size + 1));
+        if (rows.size() <= size) {
+            return new Listing(rows, null);
+        }
+        List<ExtractedContentListItem> page = rows.subList(0, size);
+        return new Listing(page, page.get(size - 1).getId());
+    }
+
+    /**
+     * Total number of rows, possibly up to extractor.list.count-cache-ttl out of date.
+     */
+    public long totalCount() {
+        long now = System.currentTimeMillis();
+        long count = cachedCount;
+        if (count < 0 || now - cachedCountAtMillis >= countTtlMillis) {
+            count = extractedContentRepository.count();
+            cachedCount = count;
+            cachedCountAtMillis = now;
+        }
+        return count;
+    }
+}
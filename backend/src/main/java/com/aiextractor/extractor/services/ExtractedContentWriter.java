@@ -0,0 +1,284 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.ExtractedContent;
+import com.aiextractor.extractor.models.ExtractedContentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The single place new extraction results are inserted. Each row is written once, content and
+ * summary together, and groups of rows go through one saveAll so Hibernate can send them as one
+ * JDBC batch.
+ * <p>
+ * With extractor.persistence.write-behind.enabled=true, rows are queued and written by a
+ * background flusher in batches instead of on the caller's thread. Loss is bounded: a crash
+ * loses at most the queued rows (write-behind.capacity) plus the batch being written, and a
+ * graceful shutdown drains the queue. While the database is unreachable the flusher retries its
+ * batch with backoff and the queue fills up; when it is full, callers write synchronously and
+ * see the failure themselves instead of the row being dropped. A row the database rejects for
+ * its own sake (e.g. a constraint violation) is the only one dropped, counted as failed.
+ */
+@Service
+public class ExtractedContentWriter {
+    private static final Logger log = LoggerFactory.getLogger(ExtractedContentWriter.class);
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private final ExtractedContentRepository extractedContentRepository;
+    private final SearchIndexService searchIndexService;
+    private final ContentBlobStore contentBlobStore;
+    private final NearDuplicateService nearDuplicateService;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<ExtractedContent> queue;
+    private final Thread flusher;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Timer flushTimer;
+    private final Counter written;
+    private final Counter failed;
+    private final Counter retries;
+    private final MeterRegistry meterRegistry;
+    private volatile boolean running = true;
+
+    public ExtractedContentWriter(ExtractedContentRepository extractedContentRepository,
+                                  SearchIndexService searchIndexService,
+                                  ContentBlobStore contentBlobStore,
+                                  NearDuplicateService nearDuplicateService,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${extractor.persistence.write-behind.enabled:false}") boolean writeBehind,
+                                  @Value("${extractor.persistence.write-behind.capacity:1000}") int capacity,
+                                  @Value("${extractor.persistence.write-behind.batch-size:50}") int batchSize,
+                                  @Value("${extractor.persistence.write-behind.flush-interval:200ms}") Duration flushInterval) {
+        this.extractedContentRepository = extractedContentRepository;
+        this.searchIndexService = searchIndexService;
+        this.contentBlobStore = contentBlobStore;
+        this.nearDuplicateService = nearDuplicateService;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.flushTimer = Timer.builder("extractor.persistence.flush")
+                .description("Time to insert one batch of extraction results")
+                .register(meterRegistry);
+        this.written = Counter.builder("extractor.persistence.rows").tag("outcome", "written").register(meterRegistry);
+        this.failed = Counter.builder("extractor.persistence.rows").tag("outcome", "failed").register(meterRegistry);
+        this.retries = Counter.builder("extractor.persistence.retries")
+                .description("Background batch writes retried because the database was unavailable")
+                .register(meterRegistry);
+        if (writeBehind) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            Gauge.builder("extractor.persistence.queue.size", queue, BlockingQueue::size)
+                    .description("Extraction results waiting to be written")
+                    .register(meterRegistry);
+            this.flusher = new Thread(this::flushLoop, "extracted-content-writer");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        } else {
+            this.queue = null;
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Stores a new row, now or (write-behind) shortly.
+     */
+    public void store(ExtractedContent entity) {
+        storeAll(List.of(entity));
+    }
+
+    /**
+     * Stores a new row before returning, bypassing write-behind, for callers that hand the row
+     * to others (e.g. other replicas) as soon as this returns.
+     */
+    public void storeNow(ExtractedContent entity) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            write(List.of(entity));
+            outcome = "success";
+        } finally {
+            sample.stop(ExtractionService.stageTimer(meterRegistry, "persist", outcome));
+        }
+    }
+
+    /**
+     * Stores new rows, now in one batch or (write-behind) shortly. Timed as the pipeline's
+     * persist stage: with write-behind that is the time to queue them.
+     */
+    public void storeAll(List<ExtractedContent> entities) {
+        if (entities.isEmpty()) return;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            enqueueOrWrite(entities);
+            outcome = "success";
+        } finally {
+            sample.stop(ExtractionService.stageTimer(meterRegistry, "persist", outcome));
+        }
+    }
+
+    private void enqueueOrWrite(List<ExtractedContent> entities) {
+        if (queue == null) {
+            write(entities);
+            return;
+        }
+        List<ExtractedContent> overflow = null;
+        for (ExtractedContent entity : entities) {
+            if (!queue.offer(entity)) {
+                if (overflow == null) overflow = new ArrayList<>();
+                overflow.add(entity);
+            }
+        }
+        if (overflow != null) {
+            // Queue full: write on the caller's thread rather than lose rows or grow without bound
+            write(overflow);
+        }
+    }
+
+    // Helper: Insert the rows on the caller's thread and index them; a failure is the caller's to report
+    private void write(List<ExtractedContent> entities) {
+        try {
+            index(save(entities));
+        } catch (RuntimeException e) {
+            failed.increment(entities.size());
+            throw e;
+        }
+    }
+
+    // Helper: Insert the rows' blobs and the rows with one saveAll (one transaction, JDBC-batched)
+    private List<ExtractedContent> save(List<ExtractedContent> entities) {
+        List<ExtractedContent> saved = flushTimer.record(() -> transactionTemplate.execute(status -> {
+            contentBlobStore.externalize(entities);
+            return extractedContentRepository.saveAll(entities);
+        }));
+        written.increment(entities.size());
+        return saved;
+    }
+
+    private void index(List<ExtractedContent> saved) {
+        searchIndexService.indexSavedAll(saved);
+        nearDuplicateService.indexSavedAll(saved);
+    }
+
+    // Helper: Write a queued batch, whose callers were told it succeeded. While the database is
+    // unavailable the batch is retried with backoff; other failures are narrowed down to single
+    // rows, and only a row that fails on its own is dropped
+    private void flush(List<ExtractedContent> batch) throws InterruptedException {
+        long delayMillis = Math.max(flushIntervalMillis, 100);
+        List<ExtractedContent> saved;
+        while (true) {
+            try {
+                saved = save(batch);
+                break;
+            } catch (RuntimeException e) {
+                // The rolled-back attempt assigned ids and blob pointers that do not exist
+                reset(batch);
+                if (isUnavailable(e)) {
+                    retries.increment();
+                    log.warn("Database unavailable, retrying {} extraction results in {} ms: {}", batch.size(), delayMillis, e.getMessage());
+                    Thread.sleep(delayMillis);
+                    delayMillis = Math.min(delayMillis * 2, MAX_RETRY_DELAY_MILLIS);
+                } else if (batch.size() > 1) {
+                    for (ExtractedContent entity : batch) flush(List.of(entity));
+                    return;
+                } else {
+                    failed.increment();
+                    log.error("Dropping the extraction result for {}", batch.get(0).getUrl(), e);
+                    return;
+                }
+            }
+        }
+        // Outside the retries: the rows are stored, so a failure here must not write them again
+        index(saved);
+    }
+
+    private static void reset(List<ExtractedContent> entities) {
+        for (ExtractedContent entity : entities) {
+            entity.setId(null);
+            // Back inline; externalize moves it to its blob again
+            if (entity.getContentHash() != null) entity.setContent(entity.getContent());
+        }
+    }
+
+    // Helper: Whether the database could not be reached, as opposed to rejecting the rows
+    static boolean isUnavailable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CannotCreateTransactionException || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof TransientDataAccessException || cause instanceof RecoverableDataAccessException
+                    || cause instanceof SQLTransientException || cause instanceof SQLRecoverableException
+                    || cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+            // SQLSTATE class 08 (connection exception) and 57P (e.g. PostgreSQL shutting down)
+            if (cause instanceof SQLException sql && sql.getSQLState() != null
+                    && (sql.getSQLState().startsWith("08") || sql.getSQLState().startsWith("57P"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void flushLoop() {
+        List<ExtractedContent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ExtractedContent first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                // Flush when the batch is full or flush-interval after its first row, whichever is first
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize && running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) break;
+                    ExtractedContent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to index {} extraction results", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Stops accepting background work and writes everything still queued.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (flusher == null) return;
+        // The flusher sees the flag within one flush interval and exits once the queue is empty
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+    }
+}
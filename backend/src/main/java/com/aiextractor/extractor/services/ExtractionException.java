@@ -0,0 +1,24 @@
+package com.aiextractor.extractor.services;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Expected failure of the extraction pipeline, with the HTTP status and message shown to the client.
+ */
+public class ExtractionException extends Exception {
+    private final HttpStatus status;
+
+    public ExtractionException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public ExtractionException(HttpStatus status, String message, Throwable cause) {
+        super(message, cause);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,174 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.ExtractionJob;
+import com.aiextractor.extractor.models.SummaryResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs extraction jobs on a dedicated, bounded worker pool so slow sites never hold servlet threads.
+ * The queue is capped; when it is full, submissions are rejected instead of piling up.
+ */
+@Service
+public class ExtractionJobService {
+    private final ExtractionService extractionService;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ExtractionJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    // Orders subscribing against a job finishing, so no subscriber is left registered or sent to twice
+    private final Object subscriptionLock = new Object();
+    private final Queue<ExtractionJob> finished = new ConcurrentLinkedQueue<>();
+    private final Duration retention;
+    private final long sseTimeoutMillis;
+    private final Timer waitTimer;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    public ExtractionJobService(ExtractionService extractionService,
+                                MeterRegistry meterRegistry,
+                                @Value("${extractor.jobs.workers:4}") int workers,
+                                @Value("${extractor.jobs.queue-capacity:100}") int queueCapacity,
+                                @Value("${extractor.jobs.retention:1h}") Duration retention,
+                                @Value("${extractor.jobs.sse-timeout:5m}") Duration sseTimeout) {
+        this.extractionService = extractionService;
+        this.meterRegistry = meterRegistry;
+        this.retention = retention;
+        this.sseTimeoutMillis = sseTimeout.toMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "extraction-job-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.waitTimer = Timer.builder("extractor.jobs.wait")
+                .description("Time jobs spend queued before a worker picks them up")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("extractor.jobs.rejected")
+                .description("Jobs rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("extractor.jobs.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("extractor.jobs.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    /**
+     * Queues an extraction job for the URL.
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public ExtractionJob submit(String url) {
+        purgeExpired();
+        ExtractionJob job = new ExtractionJob(UUID.randomUUID().toString(), url);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            rejected.increment();
+            throw e;
+        }
+        return job;
+    }
+
+    public ExtractionJob get(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Opens a server-sent-events stream for the job. The current status is sent right away and the
+     * result (or error) when the job finishes, after which the stream completes.
+     */
+    public SseEmitter subscribe(ExtractionJob job) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMillis);
+        synchronized (subscriptionLock) {
+            if (!job.isFinished()) {
+                List<SseEmitter> emitters = subscribers.computeIfAbsent(job.getId(), id -> new CopyOnWriteArrayList<>());
+                emitters.add(emitter);
+                emitter.onCompletion(() -> emitters.remove(emitter));
+                emitter.onTimeout(() -> emitters.remove(emitter));
+            }
+            // Sent under the lock: the final event of a job finishing now can only come after it
+            send(emitter, job);
+        }
+        return emitter;
+    }
+
+    private void run(ExtractionJob job) {
+        waitTimer.record(Duration.between(job.getCreatedAt(), Instant.now()));
+        job.markRunning();
+        notifySubscribers(job);
+        long start = System.nanoTime();
+        try {
+            SummaryResponse result = extractionService.extractAndStore(job.getUrl());
+            job.succeed(result);
+        } catch (ExtractionException e) {
+            job.fail(e.getStatus().value(), e.getMessage());
+        } catch (Exception e) {
+            job.fail(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Unexpected error: " + e.getMessage());
+        }
+        Timer.builder("extractor.jobs.run")
+                .description("Time workers spend running a job")
+                .tag("outcome", job.getStatus().name().toLowerCase())
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        finished.add(job);
+        notifySubscribers(job);
+    }
+
+    private void notifySubscribers(ExtractionJob job) {
+        List<SseEmitter> emitters;
+        synchronized (subscriptionLock) {
+            emitters = job.isFinished() ? subscribers.remove(job.getId()) : subscribers.get(job.getId());
+        }
+        if (emitters == null) return;
+        for (SseEmitter emitter : emitters) {
+            send(emitter, job);
+        }
+    }
+
+    // Helper: Send the job state; finished jobs also complete the stream
+    private void send(SseEmitter emitter, ExtractionJob job) {
+        try {
+            emitter.send(SseEmitter.event().name(job.getStatus().name().toLowerCase()).data(job));
+            if (job.isFinished()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; nothing else to do for this subscriber
+            emitter.completeWithError(e);
+        }
+    }
+
+    // Helper: Forget finished jobs once they are older than the retention period
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        ExtractionJob head;
+        while ((head = finished.peek()) != null && head.getFinishedAt().isBefore(cutoff)) {
+            finished.poll();
+            jobs.remove(head.getId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,26 @@
+package com.aiextractor.extractor.services;
+
+/**
+ * Progress callbacks from the extraction pipeline, so stage results can be streamed to a client
+ * before the whole pipeline is done. Called on the thread running the pipeline.
+ */
+public interface ExtractionListener {
+    ExtractionListener NONE = new ExtractionListener() {};
+
+    /**
+     * The page is available: fetched, revalidated or served from the page cache.
+     * @param url URL the page was read from, after redirects
+     */
+    default void fetched(String url, boolean fromCache) {}
+
+    /**
+     * Main text extracted.
+     */
+    default void extracted(int textLength) {}
+
+    /**
+     * One chunk of the document summarized, in document order.
+     * @param source "huggingface", or "local" where the chunk was condensed locally
+     */
+    default void chunkSummarized(int index, String summary, String source) {}
+}
@@ -0,0 +1,300 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.ExtractedContent;
+import com.aiextractor.extractor.models.ExtractedContentRepository;
+import com.aiextractor.extractor.models.SummaryResponse;
+import com.aiextractor.extractor.utils.UrlNormalizer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.jsoup.HttpStatusException;
+import org.jsoup.UnsupportedMimeTypeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The extraction pipeline shared by the synchronous endpoint and background jobs:
+ * fetch and extract the page, summarize it and store both.
+ * Each stage is timed as extractor.stage{stage,outcome} (fetch, parse and extract in
+ * HtmlExtractorService, summarize here, persist in ExtractedContentWriter); failures are
+ * counted by category as extractor.errors{category}.
+ */
+@Service
+public class ExtractionService {
+    private static final Logger log = LoggerFactory.getLogger(ExtractionService.class);
+
+    /**
+     * Result of the pipeline before persistence: the entity to store and the client response.
+     */
+    public record Extraction(ExtractedContent entity, SummaryResponse response) {}
+
+    @Autowired
+    private HtmlExtractorService htmlExtractorService;
+    @Autowired
+    private SummaryMemo summaryMemo;
+    @Autowired
+    private ExtractedContentWriter extractedContentWriter;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private AdvisoryLocks advisoryLocks;
+    @Autowired
+    private ExtractedContentRepository extractedContentRepository;
+    @Autowired
+    private NearDuplicateService nearDuplicateService;
+
+    @Value("${extractor.single-flight.enabled:true}")
+    private boolean singleFlight;
+    @Value("${extractor.single-flight.cluster:false}")
+    private boolean clusterSingleFlight;
+    @Value("${extractor.single-flight.lock-timeout:30s}")
+    private Duration lockTimeout;
+    @Value("${extractor.single-flight.reuse-window:60s}")
+    private Duration reuseWindow;
+    @Value("${extractor.single-flight.wait-timeout:60s}")
+    private Duration waitTimeout;
+
+    // One pipeline run per normalized URL at a time; concurrent callers wait for its result
+    private final ConcurrentHashMap<String, CompletableFuture<SummaryResponse>> inFlight = new ConcurrentHashMap<>();
+    private Counter leaders;
+    private Counter followers;
+    private Counter reused;
+
+    @PostConstruct
+    void registerMeters() {
+        leaders = singleFlightCounter("leader");
+        followers = singleFlightCounter("follower");
+        reused = singleFlightCounter("reused");
+        Gauge.builder("extractor.single-flight.coalescing.ratio", this, ExtractionService::coalescingRatio)
+                .description("Share of extract requests answered by another request's pipeline run")
+                .register(meterRegistry);
+        if (clusterSingleFlight && !advisoryLocks.isSupported()) {
+            log.warn("extractor.single-flight.cluster needs PostgreSQL advisory locks; coalescing on this node only");
+        }
+    }
+
+    /**
+     * Runs the whole pipeline for one URL. Concurrent calls for the same normalized URL share
+     * one run and one stored row (extractor.single-flight.enabled); with
+     * extractor.single-flight.cluster=true they are also coalesced across replicas.
+     * @param url An http(s) URL, already validated by the caller
+     * @return Summary and key points
+     * @throws ExtractionException for failures that should be reported to the client as-is
+     */
+    public SummaryResponse extractAndStore(String url) throws ExtractionException {
+        if (!singleFlight) return runAndStore(url);
+        String key = UrlNormalizer.normalize(url);
+        CompletableFuture<SummaryResponse> flight = new CompletableFuture<>();
+        CompletableFuture<SummaryResponse> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            followers.increment();
+            return await(existing);
+        }
+        try {
+            SummaryResponse response = clusterSingleFlight && advisoryLocks.isSupported()
+                    ? runAndStoreLocked(url, key)
+                    : countedRunAndStore(url);
+            flight.complete(response);
+            return response;
+        } catch (Throwable e) {
+            // Errors too: a flight left incomplete would hold its followers until they time out
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private SummaryResponse countedRunAndStore(String url) throws ExtractionException {
+        leaders.increment();
+        return runAndStore(url);
+    }
+
+    SummaryResponse runAndStore(String url) throws ExtractionException {
+        Extraction extraction = extract(url);
+        // Save extracted content and summary to DB in a single insert
+        extractedContentWriter.store(extraction.entity());
+        return extraction.response();
+    }
+
+    // Helper: Cross-replica single flight. Under the normalized URL's advisory lock, a row another
+    // replica stored within reuse-window for any spelling of the URL (same url_key) is returned
+    // as-is; otherwise this node runs the pipeline and commits the row before the lock is released
+    private SummaryResponse runAndStoreLocked(String url, String key) throws ExtractionException {
+        AdvisoryLocks.Lock lock = lockUrl(url, key);
+        if (lock == null) return countedRunAndStore(url);
+        try (lock) {
+            Optional<ExtractedContent> recent = extractedContentRepository
+                    .findFirstByUrlKeyAndCreatedAtAfterOrderByCreatedAtDesc(key, Instant.now().minus(reuseWindow));
+            if (recent.isPresent()) {
+                reused.increment();
+                return new SummaryResponse(recent.get().getSummary(), recent.get().getKeyPoints());
+            }
+            leaders.increment();
+            Extraction extraction = extract(url);
+            extractedContentWriter.storeNow(extraction.entity());
+            return extraction.response();
+        }
+    }
+
+    // Helper: The URL's advisory lock, or null if it timed out or failed (then extract without it)
+    private AdvisoryLocks.Lock lockUrl(String url, String key) throws ExtractionException {
+        try {
+            return advisoryLocks.tryLock("extract:" + key, lockTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExtractionException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the same URL on another node.", e);
+        } catch (SQLException e) {
+            log.warn("Advisory lock for {} failed, extracting without it", url, e);
+            return null;
+        }
+    }
+
+    // Helper: The leader's result within wait-timeout, or its failure rethrown as this caller's own
+    private SummaryResponse await(CompletableFuture<SummaryResponse> flight) throws ExtractionException {
+        try {
+            return flight.get(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new ExtractionException(HttpStatus.GATEWAY_TIMEOUT, "Timed out waiting for another request for the same URL.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExtractionException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for another request for the same URL.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ExtractionException extraction) throw extraction;
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Counter singleFlightCounter(String role) {
+        return Counter.builder("extractor.single-flight.requests")
+                .description("Extract requests by whether they ran the pipeline (leader) or shared a run")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    private double coalescingRatio() {
+        double shared = followers.count() + reused.count();
+        double total = shared + leaders.count();
+        return total == 0 ? 0 : shared / total;
+    }
+
+    /**
+     * Runs fetch and summarization without touching the database. The returned entity is complete
+     * (content and summary) and unsaved, so callers can persist many of them in one batch.
+     */
+    public Extraction extract(String url) throws ExtractionException {
+        return extract(url, ExtractionListener.NONE);
+    }
+
+    /**
+     * Same as {@link #extract(String)}, reporting each stage's result to the listener as it finishes.
+     */
+    public Extraction extract(String url, ExtractionListener listener) throws ExtractionException {
+        String text = fetchText(url, listener);
+        listener.extracted(text.length());
+        DistributionSummary.builder("extractor.text.length")
+                .description("Characters of main text extracted per page")
+                .baseUnit("characters")
+                .register(meterRegistry)
+                .record(text.length());
+        SummaryResponse response = summarize(text, listener);
+        ExtractedContent entity = new ExtractedContent();
+        entity.setUrl(url);
+        entity.setContent(text);
+        entity.setSummary(response.getSummary());
+        entity.setKeyPoints(response.getKeyPoints());
+        entity.setCreatedAt(Instant.now());
+        return new Extraction(entity, response);
+    }
+
+    // Helper: Fetch the page and extract its main text, translating failures for the client
+    private String fetchText(String url, ExtractionListener listener) throws ExtractionException {
+        String text;
+        try {
+            text = htmlExtractorService.extractMainContent(url, listener);
+        } catch (MalformedURLException e) {
+            countError("malformed_url");
+            throw new ExtractionException(HttpStatus.BAD_REQUEST, "Malformed URL.", e);
+        } catch (IOException e) {
+            countError(fetchErrorCategory(e));
+            throw new ExtractionException(HttpStatus.BAD_GATEWAY, "Failed to fetch or parse the page. It may be unavailable or JavaScript-heavy.", e);
+        }
+        if (text == null || text.isBlank()) {
+            countError("no_content");
+            throw new ExtractionException(HttpStatus.BAD_REQUEST, "No extractable content found on the page.");
+        }
+        return text;
+    }
+
+    private SummaryResponse summarize(String text, ExtractionListener listener) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            SummaryResponse response = nearDuplicateSummary(text);
+            if (response == null) response = summaryMemo.summarize(text, 5, listener);
+            outcome = "success";
+            return response;
+        } finally {
+            sample.stop(stageTimer(meterRegistry, "summarize", outcome));
+        }
+    }
+
+    // Helper: Summary of a stored near-duplicate of the text, or null if there is none
+    private SummaryResponse nearDuplicateSummary(String text) {
+        // The index can briefly list a row another replica deleted; then summarize as usual
+        return nearDuplicateService.findSimilar(text)
+                .flatMap(extractedContentRepository::findById)
+                .map(e -> new SummaryResponse(e.getSummary(), e.getKeyPoints()))
+                .orElse(null);
+    }
+
+    /**
+     * Timer for one pipeline stage. All stages share the name so they can be compared side by side.
+     */
+    static Timer stageTimer(MeterRegistry registry, String stage, String outcome) {
+        return Timer.builder("extractor.stage")
+                .description("Time spent in each stage of the extraction pipeline")
+                .tag("stage", stage)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    // Helper: Error category of a failed fetch, for extractor.errors
+    private static String fetchErrorCategory(IOException e) {
+        // Connect, read and total timeouts, and fetches aborted while waiting
+        if (e instanceof InterruptedIOException) return "fetch_timeout";
+        if (e instanceof HttpStatusException) return "fetch_status";
+        if (e instanceof UnsupportedMimeTypeException) return "unsupported_content_type";
+        return "fetch_io";
+    }
+
+    private void countError(String category) {
+        Counter.builder("extractor.errors")
+                .description("Failed extractions by cause")
+                .tag("category", category)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,174 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.SummaryResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs an extraction for one client and streams each stage's result to it as server-sent
+ * events: fetched, extracted, one chunk event per summarized chunk, then summary (or error).
+ * The pipeline runs on a bounded worker pool. When the client disconnects, the worker is
+ * interrupted, which cancels the remote summarization calls still in flight, and nothing is stored.
+ */
+@Service
+public class ExtractionStreamService {
+    private final ExtractionService extractionService;
+    private final ExtractedContentWriter extractedContentWriter;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService heartbeats;
+    private final long timeoutMillis;
+    private final long heartbeatMillis;
+    private final Counter rejected;
+    private final Counter cancelled;
+
+    public ExtractionStreamService(ExtractionService extractionService,
+                                   ExtractedContentWriter extractedContentWriter,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${extractor.stream.workers:8}") int workers,
+                                   @Value("${extractor.stream.queue-capacity:100}") int queueCapacity,
+                                   @Value("${extractor.stream.timeout:5m}") Duration timeout,
+                                   @Value("${extractor.stream.heartbeat:5s}") Duration heartbeat) {
+        this.extractionService = extractionService;
+        this.extractedContentWriter = extractedContentWriter;
+        this.timeoutMillis = timeout.toMillis();
+        this.heartbeatMillis = heartbeat.toMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "extraction-stream-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "extraction-stream-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        this.rejected = Counter.builder("extractor.stream.rejected")
+                .description("Streams rejected because the queue was full")
+                .register(meterRegistry);
+        this.cancelled = Counter.builder("extractor.stream.cancelled")
+                .description("Streams whose client went away before the summary")
+                .register(meterRegistry);
+        Gauge.builder("extractor.stream.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    /**
+     * Starts the extraction and returns the stream its events go to.
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public SseEmitter open(String url) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Stream stream = new Stream(emitter);
+        // Heartbeat and callbacks before the task: a fast run (cached page, early error) can finish before submit returns.
+        // Comments keep proxies from closing an idle stream and reveal a departed client between stages
+        stream.heartbeat = heartbeats.scheduleAtFixedRate(() -> stream.send(SseEmitter.event().comment("heartbeat")),
+                heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        emitter.onTimeout(stream::cancel);
+        emitter.onError(e -> stream.cancel());
+        emitter.onCompletion(stream::stopHeartbeat);
+        try {
+            stream.task = executor.submit(() -> stream.run(url));
+        } catch (RejectedExecutionException e) {
+            stream.stopHeartbeat();
+            rejected.increment();
+            throw e;
+        }
+        return emitter;
+    }
+
+    // One client's extraction; also the listener that turns pipeline progress into events
+    private class Stream implements ExtractionListener {
+        private final SseEmitter emitter;
+        private volatile Future<?> task;
+        private volatile ScheduledFuture<?> heartbeat;
+        private volatile boolean closed;
+
+        Stream(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void run(String url) {
+            try {
+                ExtractionService.Extraction extraction = extractionService.extract(url, this);
+                if (closed || Thread.currentThread().isInterrupted()) return;
+                // Save extracted content and summary to DB in a single insert
+                extractedContentWriter.store(extraction.entity());
+                SummaryResponse response = extraction.response();
+                send(SseEmitter.event().name("summary").data(response));
+            } catch (ExtractionException e) {
+                send(SseEmitter.event().name("error").data(Map.of("status", e.getStatus().value(), "error", e.getMessage())));
+            } catch (Exception e) {
+                send(SseEmitter.event().name("error").data(Map.of(
+                        "status", HttpStatus.INTERNAL_SERVER_ERROR.value(), "error", "Unexpected error: " + e.getMessage())));
+            } finally {
+                stopHeartbeat();
+                finish();
+            }
+        }
+
+        @Override
+        public void fetched(String url, boolean fromCache) {
+            send(SseEmitter.event().name("fetched").data(Map.of("url", url, "fromCache", fromCache)));
+        }
+
+        @Override
+        public void extracted(int textLength) {
+            send(SseEmitter.event().name("extracted").data(Map.of("textLength", textLength)));
+        }
+
+        @Override
+        public void chunkSummarized(int index, String summary, String source) {
+            send(SseEmitter.event().name("chunk").data(Map.of("index", index, "summary", summary, "source", source)));
+        }
+
+        void send(SseEmitter.SseEventBuilder event) {
+            if (closed) return;
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                cancel();
+            }
+        }
+
+        // Helper: Complete the stream unless the client already left; a late heartbeat then counts as nothing
+        synchronized void finish() {
+            if (closed) return;
+            closed = true;
+            emitter.complete();
+        }
+
+        synchronized void cancel() {
+            if (closed) return;
+            closed = true;
+            cancelled.increment();
+            stopHeartbeat();
+            if (task != null) task.cancel(true);
+        }
+
+        void stopHeartbeat() {
+            if (heartbeat != null) heartbeat.cancel(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        executor.shutdownNow();
+    }
+}
@@ -1,65 +1,329 @@
 package com.aiextractor.extractor.services;
 
+import com.aiextractor.extractor.utils.ContentDensityExtractor;
+import com.aiextractor.extractor.utils.JsoupUtils;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
+import org.jsoup.UnsupportedMimeTypeException;
+import org.jsoup.nodes.Comment;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import org.jsoup.nodes.XmlDeclaration;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
 import java.net.URL;
-import java.util.Comparator;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Service for fetching and extracting main content from HTML pages using JSoup.
  */
 @Service
 public class HtmlExtractorService {
+    // Elements whose text counts towards the streaming mode's "enough content" budget
+    private static final Set<String> TEXT_BLOCKS = Set.of("p", "li", "pre", "blockquote", "h1", "h2", "h3", "h4", "h5", "h6");
+
+    // Same rule as jsoup: XML-based types are parsed too
+    private static final Pattern XML_CONTENT_TYPE = Pattern.compile("(application|text)/\\w*\\+?xml.*");
+
+    // Charset detection for streaming as jsoup's DataUtil does it: bytes read ahead for a declaration,
+    // the byte order marks it knows (longest first), and its charset parameter pattern
+    private static final int CHARSET_PEEK_BYTES = 5 * 1024;
+    private static final List<ByteOrderMark> BYTE_ORDER_MARKS = List.of(
+            new ByteOrderMark(new int[] {0x00, 0x00, 0xFE, 0xFF}, "UTF-32BE"),
+            new ByteOrderMark(new int[] {0xFF, 0xFE, 0x00, 0x00}, "UTF-32LE"),
+            new ByteOrderMark(new int[] {0xFE, 0xFF}, "UTF-16BE"),
+            new ByteOrderMark(new int[] {0xFF, 0xFE}, "UTF-16LE"),
+            new ByteOrderMark(new int[] {0xEF, 0xBB, 0xBF}, "UTF-8"));
+    private static final Pattern CHARSET_PARAMETER = Pattern.compile("(?i)\\bcharset=\\s*(?:[\"'])?([^\\s,;\"']*)");
+
+    private record ByteOrderMark(int[] bytes, String charset) {
+        boolean matches(byte[] head) {
+            if (head.length < bytes.length) return false;
+            for (int i = 0; i < bytes.length; i++) {
+                if ((head[i] & 0xFF) != bytes[i]) return false;
+            }
+            return true;
+        }
+    }
+
+    @Autowired
+    private PageCache pageCache;
+    @Autowired
+    private PageFetcher pageFetcher;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${extractor.engine:density}")
+    private String engine;
+    @Value("${extractor.streaming.enabled:false}")
+    private boolean streaming;
+    @Value("${extractor.streaming.max-text-length:100000}")
+    private int maxTextLength;
+
     /**
      * Fetches the HTML from the given URL and extracts the main content.
-     * Tries <main>, <article>, or the largest <div> with text. Fallback to body.
-     * Removes nav, footer, header, aside, scripts, styles, forms, ads, etc.
+     * Fresh results are served from the page cache without touching the network; stale ones are
+     * revalidated with If-None-Match/If-Modified-Since and reused as-is on 304 Not Modified.
      * @param urlString The URL to fetch
      * @return Cleaned main text content
      * @throws IOException if fetching fails
      */
     public String extractMainContent(String urlString) throws IOException {
+        return extractMainContent(urlString, ExtractionListener.NONE);
+    }
+
+    /**
+     * Same as {@link #extractMainContent(String)}, telling the listener as soon as the page is
+     * available (before it is parsed).
+     */
+    public String extractMainContent(String urlString, ExtractionListener listener) throws IOException {
         URL url = new URL(urlString);
-        Document doc = Jsoup.connect(url.toString())
-                .userAgent("Mozilla/5.0 (compatible; AIContentExtractor/1.0)")
-                .timeout(10000)
-                .followRedirects(true)
-                .get();
-
-        // Remove unwanted elements
-        String[] selectors = {"nav", "footer", "aside", "header", "form", "script", "style", "noscript", "ads", ".ads", "[role=advertisement]", "[aria-label=sidebar]", "[aria-label=footer]", "[aria-label=navigation]"};
-        for (String selector : selectors) {
-            Elements elements = doc.select(selector);
-            for (Element el : elements) {
-                el.remove();
+        String key = pageCache.key(url.toString());
+        PageCache.Entry cached = pageCache.get(key);
+        if (cached != null && pageCache.isFresh(cached)) {
+            pageCache.recordHit();
+            listener.fetched(url.toString(), true);
+            return cached.text();
+        }
+        Map<String, String> headers = new HashMap<>();
+        if (cached != null) {
+            if (cached.etag() != null) headers.put("If-None-Match", cached.etag());
+            if (cached.lastModified() != null) headers.put("If-Modified-Since", cached.lastModified());
+        }
+        try (PageFetcher.Response response = timed("fetch", () -> fetch(url.toString(), headers))) {
+            if (cached != null && response.statusCode() == 304) {
+                pageCache.recordRevalidated();
+                listener.fetched(response.url().toString(), true);
+                return pageCache.touch(key, cached).text();
+            }
+            checkResponse(response);
+            listener.fetched(response.url().toString(), false);
+            if (cached != null) {
+                pageCache.recordRefetched();
+            } else {
+                pageCache.recordMiss();
+            }
+            String baseUri = response.url().toString();
+            long allocatedBefore = allocatedBytes();
+            CountingInputStream body = new CountingInputStream(response.body());
+            // The body is read while parsing, so the parse stage includes the download
+            Document doc = timed("parse", () -> streaming
+                    ? parseStreaming(body, response.charset(), baseUri)
+                    : Jsoup.parse(body, response.charset(), baseUri));
+            String text = timed("extract", () -> extractFromDocument(doc));
+            if (streaming && text.length() > maxTextLength) {
+                text = text.substring(0, maxTextLength).trim();
+            }
+            recordAllocation(allocatedBefore);
+            DistributionSummary.builder("extractor.page.size")
+                    .description("Bytes of HTML read per fetched page")
+                    .baseUnit("bytes")
+                    .register(meterRegistry)
+                    .record(body.count());
+            String cacheControl = response.header("Cache-Control");
+            if (cacheControl == null || !cacheControl.toLowerCase().contains("no-store")) {
+                pageCache.put(key, text, response.header("ETag"), response.header("Last-Modified"));
+            } else {
+                pageCache.invalidate(key);
+            }
+            return text;
+        }
+    }
+
+    // Helper: Fetch through the shared fetcher; an interrupt surfaces as an I/O failure
+    private PageFetcher.Response fetch(String url, Map<String, String> headers) throws IOException {
+        try {
+            return pageFetcher.fetch(url, headers);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to fetch " + url);
+        }
+    }
+
+    // Helper: Reject error statuses and non-HTML content the way jsoup's own fetch did
+    private static void checkResponse(PageFetcher.Response response) throws IOException {
+        String url = response.url().toString();
+        if (response.statusCode() < 200 || response.statusCode() >= 400) {
+            throw new HttpStatusException("HTTP error fetching URL", response.statusCode(), url);
+        }
+        String mimeType = response.mimeType();
+        if (mimeType != null && !mimeType.startsWith("text/") && !XML_CONTENT_TYPE.matcher(mimeType).matches()) {
+            throw new UnsupportedMimeTypeException("Unhandled content type. Must be text/*, application/xml, or application/*+xml", mimeType, url);
+        }
+    }
+
+    /**
+     * Extracts the main content from an already parsed document using the configured engine:
+     * "density" (single-pass text density scoring, default) or "legacy" (main/article/largest div).
+     * @param doc The parsed page; boilerplate elements are removed from it in place
+     * @return Cleaned main text content
+     */
+    public String extractFromDocument(Document doc) {
+        if ("legacy".equalsIgnoreCase(engine)) {
+            return JsoupUtils.extractLargestBlockText(doc);
+        }
+        return ContentDensityExtractor.extract(doc);
+    }
+
+    /**
+     * Parses the body incrementally instead of building the whole DOM first. Boilerplate
+     * subtrees are dropped as soon as they close, and reading stops once maxTextLength characters
+     * of block text have been seen; the partial document is then handed to the normal engine.
+     * The charset is found as Jsoup.parse finds it (see detectCharset).
+     */
+    private Document parseStreaming(InputStream body, String charsetName, String baseUri) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(body);
+        Charset charset = detectCharset(buffered, charsetName);
+        try (StreamParser streamer = new StreamParser(Parser.htmlParser())
+                .parse(new InputStreamReader(buffered, charset), baseUri)) {
+            Iterator<Element> elements = streamer.iterator();
+            long collected = 0;
+            while (elements.hasNext()) {
+                Element el = elements.next();
+                if (ContentDensityExtractor.isBoilerplate(el)) {
+                    el.remove();
+                } else if (TEXT_BLOCKS.contains(el.normalName())) {
+                    collected += ContentDensityExtractor.textLength(el);
+                    if (collected >= maxTextLength) {
+                        streamer.stop();
+                        break;
+                    }
+                }
+            }
+            return streamer.document();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Helper: The body's charset, decided as jsoup's DataUtil decides it: a byte order mark (consumed
+    // here) wins over the Content-Type charset, which wins over a <meta> charset or XML declaration
+    // in the first CHARSET_PEEK_BYTES; otherwise UTF-8. The body is left positioned at the text
+    private static Charset detectCharset(BufferedInputStream body, String charsetName) throws IOException {
+        body.mark(CHARSET_PEEK_BYTES);
+        byte[] head = body.readNBytes(CHARSET_PEEK_BYTES);
+        body.reset();
+        for (ByteOrderMark bom : BYTE_ORDER_MARKS) {
+            if (bom.matches(head)) {
+                body.readNBytes(bom.bytes().length);
+                return Charset.forName(bom.charset());
             }
         }
+        Charset charset = charsetOrNull(charsetName);
+        if (charset != null) return charset;
+        Document doc = Jsoup.parse(new String(head, StandardCharsets.UTF_8));
+        for (Element meta : doc.select("meta[http-equiv=content-type], meta[charset]")) {
+            charset = charsetOrNull(meta.hasAttr("http-equiv") ? charsetParameter(meta.attr("content")) : meta.attr("charset"));
+            if (charset != null) return charset;
+        }
+        if (doc.childNodeSize() > 0 && doc.childNode(0) instanceof Comment comment && comment.isXmlDeclaration()) {
+            XmlDeclaration declaration = comment.asXmlDeclaration();
+            charset = declaration == null ? null : charsetOrNull(declaration.attr("encoding"));
+            if (charset != null) return charset;
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static String charsetParameter(String contentType) {
+        Matcher matcher = CHARSET_PARAMETER.matcher(contentType);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    // Helper: The named charset, or null if the name is missing, malformed or unsupported
+    private static Charset charsetOrNull(String name) {
+        if (name == null || name.isBlank()) return null;
+        try {
+            return Charset.isSupported(name.trim()) ? Charset.forName(name.trim()) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private interface Stage<T> {
+        T run() throws IOException;
+    }
+
+    // Helper: Run one pipeline stage under its extractor.stage timer
+    private <T> T timed(String stage, Stage<T> work) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = work.run();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(ExtractionService.stageTimer(meterRegistry, stage, outcome));
+        }
+    }
+
+    // Counts the bytes read through it, for the page size distribution
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
 
-        // Try <main>
-        Element main = doc.selectFirst("main");
-        if (main != null && main.text().length() > 200) {
-            return main.text().trim();
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count += n;
+            return n;
         }
-        // Try <article>
-        Element article = doc.selectFirst("article");
-        if (article != null && article.text().length() > 200) {
-            return article.text().trim();
+
+        long count() {
+            return count;
         }
-        // Try largest <div> with text
-        Elements divs = doc.select("div");
-        Element largestDiv = divs.stream()
-                .max(Comparator.comparingInt(e -> e.text().length()))
-                .orElse(null);
-        if (largestDiv != null && largestDiv.text().length() > 200) {
-            return largestDiv.text().trim();
+    }
+
+    // Helper: Bytes allocated so far by the current thread, or -1 if the JVM cannot tell
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
         }
-        // Fallback: get body text
-        String text = doc.body() != null ? doc.body().text() : "";
-        return text.trim();
+        return -1;
+    }
+
+    // Helper: Record heap bytes allocated while reading and extracting one page
+    private void recordAllocation(long allocatedBefore) {
+        long allocatedAfter = allocatedBytes();
+        if (allocatedBefore < 0 || allocatedAfter < 0) return;
+        DistributionSummary.builder("extractor.extraction.allocated")
+                .description("Heap bytes allocated per page extraction")
+                .baseUnit("bytes")
+                .tag("mode", streaming ? "streaming" : "dom")
+                .register(meterRegistry)
+                .record(allocatedAfter - allocatedBefore);
     }
-} 
\ No newline at end of file
+}
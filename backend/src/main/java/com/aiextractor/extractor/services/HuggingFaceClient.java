@@ -0,0 +1,243 @@
+package com.aiextractor.extractor.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Client for the HuggingFace Inference API summarization endpoint.
+ * One shared HttpClient keeps connections alive (HTTP/2 where the server supports it). All
+ * chunks of a text go in a single request as an "inputs" array; if the model rejects array
+ * input, chunks are sent as concurrent single-input requests. Every request goes through the
+ * RemoteCallGuard (circuit breaker, adaptive concurrency limit, optional hedging) and is
+ * bounded by the caller's deadline, including reading the response body.
+ */
+@Component
+public class HuggingFaceClient {
+    private static final Logger log = LoggerFactory.getLogger(HuggingFaceClient.class);
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient httpClient;
+    private final String model;
+    private final URI modelUri;
+    private final Duration timeout;
+    private final RemoteCallGuard guard;
+    // Cleared once an array request fails with a client error and all of its inputs then succeed one by one
+    private volatile boolean batchInputs;
+
+    public HuggingFaceClient(@Value("${extractor.hf.base-url:https://api-inference.huggingface.co}") String baseUrl,
+                             @Value("${extractor.hf.model:facebook/bart-large-cnn}") String model,
+                             @Value("${extractor.hf.batch-inputs:true}") boolean batchInputs,
+                             @Value("${extractor.hf.timeout:30s}") Duration timeout,
+                             RemoteCallGuard guard) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.model = model;
+        this.modelUri = URI.create(baseUrl.replaceAll("/+$", "") + "/models/" + model);
+        this.timeout = timeout;
+        this.guard = guard;
+        this.batchInputs = batchInputs;
+    }
+
+    /**
+     * The model summaries come from (extractor.hf.model).
+     */
+    public String model() {
+        return model;
+    }
+
+    /**
+     * False while the circuit breaker is open; summarize would fail fast.
+     */
+    public boolean isAvailable() {
+        return guard.isAvailable();
+    }
+
+    /**
+     * Summarizes each input, with the client's own timeout as the deadline.
+     * @return One summary per input, in input order; null where that input failed
+     */
+    public List<String> summarize(List<String> inputs, String apiKey) throws IOException, InterruptedException {
+        return summarize(inputs, apiKey, System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Summarizes each input. No request outlives the deadline: each one's timeout is the
+     * smaller of extractor.hf.timeout and the time left.
+     * @param deadlineNanos System.nanoTime() value by which the call must be done
+     * @return One summary per input, in input order; null where that input failed
+     */
+    public List<String> summarize(List<String> inputs, String apiKey, long deadlineNanos) throws IOException, InterruptedException {
+        if (inputs.isEmpty()) return List.of();
+        if (batchInputs && inputs.size() > 1) {
+            HttpResponse<byte[]> response = send(MAPPER.writeValueAsBytes(Map.of("inputs", inputs)), apiKey, deadlineNanos);
+            try (InputStream body = new ByteArrayInputStream(response.body())) {
+                if (response.statusCode() == 200) {
+                    List<String> summaries = parseSummaries(body);
+                    if (summaries.size() == inputs.size()) return summaries;
+                    log.warn("HuggingFace returned {} summaries for {} inputs", summaries.size(), inputs.size());
+                } else if (response.statusCode() == 400 || response.statusCode() == 422) {
+                    // Either the model takes no arrays or one input is bad (e.g. too long); sending them
+                    // one by one tells which, and batching is turned off only if every input then succeeds
+                    List<String> summaries = summarizeConcurrently(inputs, apiKey, deadlineNanos);
+                    if (!summaries.contains(null)) {
+                        log.info("HuggingFace model rejected batched inputs, sending inputs one by one from now on");
+                        batchInputs = false;
+                    }
+                    return summaries;
+                } else {
+                    throw new IOException("HuggingFace returned " + response.statusCode() + ": " + new String(body.readAllBytes()));
+                }
+            }
+        }
+        return summarizeConcurrently(inputs, apiKey, deadlineNanos);
+    }
+
+    // Helper: One request per input, all in flight at once (within the guard's limit)
+    private List<String> summarizeConcurrently(List<String> inputs, String apiKey, long deadlineNanos) throws IOException, InterruptedException {
+        List<CompletableFuture<String>> futures = new ArrayList<>(inputs.size());
+        List<CompletableFuture<?>> requests = new ArrayList<>(inputs.size());
+        for (String input : inputs) {
+            byte[] payload = MAPPER.writeValueAsBytes(Map.of("inputs", input));
+            CompletableFuture<String> future;
+            try {
+                CompletableFuture<HttpResponse<byte[]>> request = sendAsync(payload, apiKey, deadlineNanos);
+                requests.add(request);
+                future = request.thenApply(HuggingFaceClient::firstSummary);
+            } catch (InterruptedException e) {
+                requests.forEach(sent -> sent.cancel(true));
+                throw e;
+            } catch (IOException e) {
+                // Breaker open or deadline reached: the remaining inputs are not sent either
+                future = CompletableFuture.failedFuture(e);
+            }
+            futures.add(future);
+        }
+        List<String> summaries = new ArrayList<>(inputs.size());
+        try {
+            for (CompletableFuture<String> future : futures) {
+                try {
+                    summaries.add(future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (ExecutionException e) {
+                    log.debug("HuggingFace request failed: {}", e.getCause().getMessage());
+                    summaries.add(null);
+                } catch (TimeoutException e) {
+                    log.debug("HuggingFace request not done by the deadline");
+                    summaries.add(null);
+                }
+            }
+        } finally {
+            // Requests still running past the deadline, or when the caller gave up, are aborted
+            requests.forEach(sent -> sent.cancel(true));
+        }
+        return summaries;
+    }
+
+    private HttpResponse<byte[]> send(byte[] payload, String apiKey, long deadlineNanos) throws IOException, InterruptedException {
+        CompletableFuture<HttpResponse<byte[]>> future = sendAsync(payload, apiKey, deadlineNanos);
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HttpTimeoutException("HuggingFace response not complete by the deadline");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        }
+    }
+
+    // Helper: Admits the request through the guard, which reports its outcome when it completes.
+    // The response future completes only once the whole body is in, so waiting on it bounds the body read too
+    private CompletableFuture<HttpResponse<byte[]>> sendAsync(byte[] payload, String apiKey, long deadlineNanos) throws IOException, InterruptedException {
+        if (deadlineNanos - System.nanoTime() <= 0) {
+            throw new HttpTimeoutException("HuggingFace deadline reached before the request was sent");
+        }
+        // Overload and server errors count against the remote; a rejected batch does not.
+        // The request future itself is returned, so that cancelling it aborts the exchange
+        return guard.call(deadlineNanos, () -> {
+            Duration remaining = Duration.ofNanos(Math.max(1, deadlineNanos - System.nanoTime()));
+            HttpRequest request = request(payload, apiKey, remaining.compareTo(timeout) < 0 ? remaining : timeout);
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        }, response -> response.statusCode() < 500 && response.statusCode() != 429);
+    }
+
+    private HttpRequest request(byte[] payload, String apiKey, Duration requestTimeout) {
+        return HttpRequest.newBuilder(modelUri)
+                .timeout(requestTimeout)
+                .header("Authorization", "Bearer " + apiKey)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                .build();
+    }
+
+    // Helper: The summary of a single-input response; fails the future on non-200 or no summary
+    private static String firstSummary(HttpResponse<byte[]> response) {
+        try (InputStream body = new ByteArrayInputStream(response.body())) {
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HuggingFace returned " + response.statusCode() + ": " + new String(response.body()));
+            }
+            List<String> summaries = parseSummaries(body);
+            if (summaries.isEmpty() || summaries.get(0) == null) {
+                throw new IllegalStateException("HuggingFace response had no summary_text");
+            }
+            return summaries.get(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads summary_text values from a response body with a streaming parser. Accepts the array form
+     * ([{"summary_text": ...}, ...], one object per input, also nested one level deeper) and a
+     * single object. Objects without a summary yield null.
+     */
+    static List<String> parseSummaries(InputStream body) throws IOException {
+        List<String> summaries = new ArrayList<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            String current = null;
+            for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+                if (token == JsonToken.START_OBJECT) {
+                    current = null;
+                } else if (token == JsonToken.END_OBJECT) {
+                    summaries.add(current);
+                } else if (token == JsonToken.FIELD_NAME) {
+                    boolean isSummary = "summary_text".equals(parser.currentName());
+                    JsonToken value = parser.nextToken();
+                    if (isSummary && value == JsonToken.VALUE_STRING) {
+                        current = parser.getText();
+                    } else if (value.isStructStart()) {
+                        // Nested values (e.g. error details) are not summaries
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        return summaries;
+    }
+}
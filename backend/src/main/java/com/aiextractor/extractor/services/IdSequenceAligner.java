@@ -0,0 +1,50 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.ExtractedContent;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Moves the id sequence past the existing rows at startup. Databases created while ids came
+ * from an IDENTITY column already hold ids the new sequence would hand out again.
+ * Only PostgreSQL is adjusted; other databases are expected to start empty. With schema
+ * migrations the SchemaMigrator does this once, when it runs version 1 on an existing database, and
+ * extractor.schema.align-id-sequence=false turns this off.
+ */
+@Component
+@Lazy(false)
+public class IdSequenceAligner {
+    // Pooled ids from a call returning v are v-49..v, so keep v at least max(id) + allocation size
+    static final String ALIGN_SEQUENCE = "select setval('" + ExtractedContent.ID_SEQUENCE + "', greatest("
+            + "(select coalesce(max(id), 0) from extracted_content) + " + ExtractedContent.ID_ALLOCATION_SIZE + ", "
+            + "(select last_value from " + ExtractedContent.ID_SEQUENCE + ")))";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    // The EntityManagerFactory dependency makes this run after the schema (and sequence) exist
+    public IdSequenceAligner(DataSource dataSource, JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                             @Value("${extractor.schema.align-id-sequence:true}") boolean enabled) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void align() throws SQLException {
+        if (!enabled) return;
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) return;
+        }
+        jdbcTemplate.queryForObject(ALIGN_SEQUENCE, Long.class);
+    }
+}
@@ -0,0 +1,177 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.utils.LocalSummarizer;
+import com.aiextractor.extractor.utils.SentenceChunker;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Summarizes whole documents with the HuggingFace model, however long they are.
+ * Map: sentence-aligned chunks are summarized in groups, a few groups in flight at a time.
+ * Reduce: the partial summaries are joined and summarized again until they fit the target
+ * length. Everything runs under one latency budget; chunks the model has not summarized when
+ * it runs out are condensed with the local extractive summarizer instead.
+ */
+@Component
+public class MapReduceSummarizer {
+    private static final Logger log = LoggerFactory.getLogger(MapReduceSummarizer.class);
+    private static final int MAX_LEVELS = 4;
+    // Sentences kept when a chunk is condensed locally instead of by the model
+    private static final int LOCAL_SENTENCES_PER_CHUNK = 3;
+
+    private final HuggingFaceClient huggingFaceClient;
+    private final ExecutorService executor;
+    private final int chunkChars;
+    private final int targetChars;
+    private final int groupSize;
+    private final int parallelism;
+    private final long budgetMillis;
+
+    public MapReduceSummarizer(HuggingFaceClient huggingFaceClient,
+                               @Value("${extractor.summarize.chunk-chars:1500}") int chunkChars,
+                               @Value("${extractor.summarize.target-chars:2000}") int targetChars,
+                               @Value("${extractor.summarize.group-size:4}") int groupSize,
+                               @Value("${extractor.summarize.parallelism:4}") int parallelism,
+                               @Value("${extractor.summarize.budget:25s}") Duration budget,
+                               @Value("${extractor.hf.max-in-flight:8}") int threads) {
+        this.huggingFaceClient = huggingFaceClient;
+        this.chunkChars = chunkChars;
+        this.targetChars = targetChars;
+        this.groupSize = groupSize;
+        this.parallelism = parallelism;
+        this.budgetMillis = budget.toMillis();
+        AtomicInteger threadCount = new AtomicInteger();
+        // Requests beyond max-in-flight would only wait on the guard's concurrency limit, so no more threads than that
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "summarize-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * A document summary and how many chunks, over all levels, were summarized by the model
+     * and how many were condensed locally instead.
+     */
+    public record Result(String summary, int modelChunks, int localChunks) {}
+
+    /**
+     * The settings that shape a summary, so summaries made under different ones can be told apart.
+     */
+    public String settings() {
+        return "chunk-chars=" + chunkChars + ",target-chars=" + targetChars;
+    }
+
+    /**
+     * Summary of the whole text, at most about target-chars long unless the budget ran out
+     * before the last reduction.
+     */
+    public Result summarize(String text, String apiKey) throws InterruptedException {
+        return summarize(text, apiKey, ExtractionListener.NONE);
+    }
+
+    /**
+     * Same as {@link #summarize(String, String)}, reporting each first-level chunk summary to the
+     * listener in document order as soon as it is available. If the calling thread is
+     * interrupted, requests still in flight are cancelled.
+     */
+    public Result summarize(String text, String apiKey, ExtractionListener listener) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        int[] counts = new int[2];
+        String current = text;
+        for (int level = 0; level < MAX_LEVELS; level++) {
+            // Only the first level summarizes the document itself; later levels condense summaries
+            ExtractionListener chunkListener = level == 0 ? listener : ExtractionListener.NONE;
+            String merged = String.join(" ", map(current, apiKey, deadline, counts, chunkListener));
+            // Stop when it fits, or when a round no longer shrinks the text
+            boolean done = merged.length() <= targetChars || merged.length() >= current.length();
+            current = merged;
+            if (done) break;
+        }
+        return new Result(current, counts[0], counts[1]);
+    }
+
+    // A group of chunks sent to the model together
+    private record Pending(List<String> chunks, Future<List<String>> summaries) {}
+
+    // Helper: One summary per chunk of the text, in order; the chunks are read lazily so that
+    // only the groups in flight are held in memory
+    private List<String> map(String text, String apiKey, long deadline, int[] counts, ExtractionListener listener) throws InterruptedException {
+        SentenceChunker chunker = new SentenceChunker(text, chunkChars);
+        Deque<Pending> inFlight = new ArrayDeque<>();
+        try {
+            return map(chunker, apiKey, deadline, counts, listener, inFlight);
+        } catch (InterruptedException e) {
+            // The caller gave up: don't leave remote calls running for nobody
+            for (Pending pending : inFlight) pending.summaries().cancel(true);
+            throw e;
+        }
+    }
+
+    private List<String> map(SentenceChunker chunker, String apiKey, long deadline, int[] counts,
+                             ExtractionListener listener, Deque<Pending> inFlight) throws InterruptedException {
+        List<String> partials = new ArrayList<>();
+        while (chunker.hasNext() || !inFlight.isEmpty()) {
+            while (inFlight.size() < parallelism && chunker.hasNext() && System.nanoTime() < deadline) {
+                List<String> group = new ArrayList<>(groupSize);
+                while (group.size() < groupSize && chunker.hasNext()) group.add(chunker.next());
+                inFlight.add(new Pending(group, executor.submit(() -> huggingFaceClient.summarize(group, apiKey, deadline))));
+            }
+            if (inFlight.isEmpty()) {
+                // Out of budget: the rest of the document is condensed locally, one chunk at a time
+                partials.add(LocalSummarizer.condense(chunker.next(), LOCAL_SENTENCES_PER_CHUNK));
+                counts[1]++;
+                listener.chunkSummarized(partials.size() - 1, partials.get(partials.size() - 1), "local");
+                continue;
+            }
+            // Oldest group first, so the partial summaries stay in document order
+            Pending head = inFlight.poll();
+            List<String> summaries = await(head, deadline);
+            for (int i = 0; i < head.chunks().size(); i++) {
+                String summary = summaries != null && i < summaries.size() ? summaries.get(i) : null;
+                if (summary != null && !summary.isBlank()) {
+                    partials.add(summary.trim());
+                    counts[0]++;
+                    listener.chunkSummarized(partials.size() - 1, partials.get(partials.size() - 1), "huggingface");
+                } else {
+                    partials.add(LocalSummarizer.condense(head.chunks().get(i), LOCAL_SENTENCES_PER_CHUNK));
+                    counts[1]++;
+                    listener.chunkSummarized(partials.size() - 1, partials.get(partials.size() - 1), "local");
+                }
+            }
+        }
+        return partials;
+    }
+
+    // Helper: The group's summaries, or null if it failed or did not finish within the budget
+    private List<String> await(Pending pending, long deadline) throws InterruptedException {
+        try {
+            return pending.summaries().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            pending.summaries().cancel(true);
+            return null;
+        } catch (InterruptedException e) {
+            pending.summaries().cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            log.debug("HuggingFace summarization of {} chunks failed: {}", pending.chunks().size(), e.getCause().toString());
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
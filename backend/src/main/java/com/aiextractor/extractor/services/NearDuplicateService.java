@@ -0,0 +1,114 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.ExtractedContent;
+import com.aiextractor.extractor.models.ExtractedContentRepository;
+import com.aiextractor.extractor.utils.SimHash;
+import com.aiextractor.extractor.utils.SimHashIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Finds stored articles that are near-duplicates of new text (syndicated copies, lightly edited
+ * reposts) so their summary can be reused instead of summarizing again. Keeps an in-memory
+ * SimHash index of extracted_content: rebuilt at startup, updated on every save, edit and delete.
+ * Two texts are near-duplicates when their fingerprints agree on at least min-similarity of
+ * their 64 bits; texts shorter than min-length characters are never matched.
+ */
+@Service
+public class NearDuplicateService {
+    private static final Logger log = LoggerFactory.getLogger(NearDuplicateService.class);
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private final ExtractedContentRepository extractedContentRepository;
+    private final SimHashIndex index;
+    private final int minLength;
+    private final Counter hits;
+    private final Counter misses;
+
+    public NearDuplicateService(ExtractedContentRepository extractedContentRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${extractor.near-duplicates.enabled:false}") boolean enabled,
+                                @Value("${extractor.near-duplicates.min-similarity:0.95}") double minSimilarity,
+                                @Value("${extractor.near-duplicates.min-length:500}") int minLength) {
+        this.extractedContentRepository = extractedContentRepository;
+        this.index = enabled ? new SimHashIndex((int) Math.floor((1 - minSimilarity) * 64)) : null;
+        this.minLength = minLength;
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        if (index != null) {
+            Gauge.builder("extractor.near-duplicates.size", index, SimHashIndex::size)
+                    .description("Articles in the near-duplicate index")
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return index != null;
+    }
+
+    /**
+     * Fills the index from the table. Lookups before it finishes only miss.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (index == null) return;
+        long start = System.nanoTime();
+        index.clear();
+        int page = 0;
+        Page<ExtractedContent> rows;
+        do {
+            rows = extractedContentRepository.findAllWithBlobs(PageRequest.of(page++, REBUILD_PAGE_SIZE, Sort.by("id")));
+            rows.forEach(this::indexSaved);
+        } while (rows.hasNext());
+        log.info("Near-duplicate index rebuilt with {} articles in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Id of the stored article closest to the text, if one is a near-duplicate.
+     */
+    public Optional<Long> findSimilar(String text) {
+        if (index == null || text.length() < minLength) return Optional.empty();
+        SimHashIndex.Match match = index.nearest(SimHash.fingerprint(text));
+        (match != null ? hits : misses).increment();
+        return match == null ? Optional.empty() : Optional.of(match.id());
+    }
+
+    public void indexSaved(ExtractedContent entity) {
+        if (index == null || entity.getId() == null) return;
+        String content = entity.getContent();
+        if (content == null || content.length() < minLength) {
+            index.remove(entity.getId());
+        } else {
+            index.put(entity.getId(), SimHash.fingerprint(content));
+        }
+    }
+
+    public void indexSavedAll(Iterable<ExtractedContent> entities) {
+        if (index == null) return;
+        entities.forEach(this::indexSaved);
+    }
+
+    public void indexDeleted(Long id) {
+        if (index == null) return;
+        index.remove(id);
+    }
+
+    private static Counter lookupCounter(MeterRegistry registry, String result) {
+        return Counter.builder("extractor.near-duplicates.lookups")
+                .description("Near-duplicate lookups for newly extracted text, by result")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,108 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.utils.UrlNormalizer;
+import com.aiextractor.extractor.utils.WeightedLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache of extracted page text keyed by normalized URL.
+ * Entries keep the ETag/Last-Modified validators of the response they came from so that stale
+ * entries can be revalidated with a conditional GET instead of being downloaded and parsed again.
+ */
+@Component
+public class PageCache {
+    /**
+     * Cached extraction result and the validators needed to revalidate it.
+     */
+    public record Entry(String text, String etag, String lastModified, long storedAtMillis) {
+        public boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+
+        long weight() {
+            // Rough heap footprint: UTF-16 chars plus object/header overhead
+            long weight = 96L + 2L * text.length();
+            if (etag != null) weight += 2L * etag.length();
+            if (lastModified != null) weight += 2L * lastModified.length();
+            return weight;
+        }
+    }
+
+    private final boolean enabled;
+    private final long ttlMillis;
+    private final WeightedLruCache<String, Entry> cache;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter revalidated;
+    private final Counter refetched;
+
+    public PageCache(@Value("${extractor.page-cache.enabled:true}") boolean enabled,
+                     @Value("${extractor.page-cache.max-bytes:67108864}") long maxBytes,
+                     @Value("${extractor.page-cache.ttl:10m}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ttlMillis = ttl.toMillis();
+        this.cache = new WeightedLruCache<>(maxBytes, Entry::weight);
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.revalidated = requestCounter(meterRegistry, "revalidated");
+        this.refetched = requestCounter(meterRegistry, "refetched");
+        Gauge.builder("extractor.page.cache.size", cache, WeightedLruCache::size).register(meterRegistry);
+        Gauge.builder("extractor.page.cache.bytes", cache, WeightedLruCache::weight).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("extractor.page.cache.evictions", cache, WeightedLruCache::evictionCount).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String key(String url) {
+        return UrlNormalizer.normalize(url);
+    }
+
+    public Entry get(String key) {
+        return enabled ? cache.get(key) : null;
+    }
+
+    public boolean isFresh(Entry entry) {
+        return System.currentTimeMillis() - entry.storedAtMillis() < ttlMillis;
+    }
+
+    public void put(String key, String text, String etag, String lastModified) {
+        if (enabled) {
+            cache.put(key, new Entry(text, etag, lastModified, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Marks a stale entry as fresh again after the origin answered 304 Not Modified.
+     */
+    public Entry touch(String key, Entry entry) {
+        Entry refreshed = new Entry(entry.text(), entry.etag(), entry.lastModified(), System.currentTimeMillis());
+        cache.put(key, refreshed);
+        return refreshed;
+    }
+
+    public void invalidate(String key) {
+        cache.remove(key);
+    }
+
+    // Counters: a fresh hit, no entry at all, a stale entry confirmed by 304, a stale entry that had to be refetched
+    void recordHit() { hits.increment(); }
+    void recordMiss() { misses.increment(); }
+    void recordRevalidated() { revalidated.increment(); }
+    void recordRefetched() { refetched.increment(); }
+
+    private static Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("extractor.page.cache.requests")
+                .description("Page cache lookups by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,387 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.utils.CachingDnsResolver;
+import com.aiextractor.extractor.utils.HostConcurrencyLimiter;
+import com.aiextractor.extractor.utils.HostRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.ManagedHttpClientConnectionFactory;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.protocol.RedirectLocations;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches pages for every extraction path over one shared, pooled HTTP client.
+ * Connections are kept alive and reused, DNS lookups are cached, and responses are decoded
+ * (gzip, deflate, brotli) as they are read. Each host gets at most per-host-concurrency
+ * requests at a time and at most per-host-rate request starts per second, across all callers;
+ * time spent queueing for a host is recorded as extractor.fetch.host.wait. total-timeout bounds
+ * each fetch from the call to the end of the body, queueing included, and failures it causes are
+ * reported as InterruptedIOException like the connect and read timeouts.
+ */
+@Component
+public class PageFetcher {
+    private static final String USER_AGENT = "Mozilla/5.0 (compatible; AIContentExtractor/1.0)";
+
+    /**
+     * An open response. The body is decoded and cut off at max-body-bytes; closing the response
+     * releases the connection (back to the pool if the body was read to the end) and the host slot.
+     */
+    public class Response implements Closeable {
+        private final ClassicHttpResponse response;
+        private final URI url;
+        private final String host;
+        private final Deadline deadline;
+        private final InputStream body;
+
+        private Response(ClassicHttpResponse response, URI url, String host, Deadline deadline) throws IOException {
+            this.response = response;
+            this.url = url;
+            this.host = host;
+            this.deadline = deadline;
+            HttpEntity entity = response.getEntity();
+            InputStream content = entity == null ? InputStream.nullInputStream() : entity.getContent();
+            this.body = new BoundedInputStream(new DeadlineInputStream(content, deadline), maxBodyBytes);
+        }
+
+        public int statusCode() {
+            return response.getCode();
+        }
+
+        /**
+         * The URL the body came from, after redirects.
+         */
+        public URI url() {
+            return url;
+        }
+
+        public String header(String name) {
+            Header header = response.getFirstHeader(name);
+            return header == null ? null : header.getValue();
+        }
+
+        /**
+         * Media type without parameters, or null if the response did not say.
+         */
+        public String mimeType() {
+            ContentType type = contentType();
+            return type == null ? null : type.getMimeType();
+        }
+
+        /**
+         * Charset named in the Content-Type header, or null if absent or unsupported.
+         */
+        public String charset() {
+            ContentType type = contentType();
+            String name = type == null ? null : type.getParameter("charset");
+            try {
+                return name != null && Charset.isSupported(name) ? name : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        public InputStream body() {
+            return body;
+        }
+
+        private ContentType contentType() {
+            String value = header("Content-Type");
+            return value == null ? null : ContentType.parseLenient(value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            deadline.cancel();
+            try {
+                response.close();
+            } catch (IOException e) {
+                // After the deadline aborted the exchange there is no connection left to release
+                if (!deadline.fired) throw e;
+            } finally {
+                hostLimiter.release(host);
+            }
+        }
+    }
+
+    private final CloseableHttpClient httpClient;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final HostConcurrencyLimiter hostLimiter;
+    private final HostRateLimiter hostRateLimiter;
+    private final ScheduledExecutorService deadlines;
+    private final long totalTimeoutMillis;
+    private final int maxBodyBytes;
+    private final Timer hostWait;
+    private final Counter requests;
+    private final Counter connectionsOpened;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public PageFetcher(MeterRegistry meterRegistry,
+                       @Value("${extractor.fetch.connect-timeout:5s}") Duration connectTimeout,
+                       @Value("${extractor.fetch.read-timeout:10s}") Duration readTimeout,
+                       @Value("${extractor.fetch.total-timeout:20s}") Duration totalTimeout,
+                       @Value("${extractor.fetch.max-connections:64}") int maxConnections,
+                       @Value("${extractor.fetch.per-host-concurrency:4}") int perHostConcurrency,
+                       @Value("${extractor.fetch.per-host-rate:0}") double perHostRate,
+                       @Value("${extractor.fetch.dns-ttl:60s}") Duration dnsTtl,
+                       @Value("${extractor.max-body-bytes:2097152}") int maxBodyBytes) {
+        this.hostLimiter = new HostConcurrencyLimiter(perHostConcurrency);
+        this.hostRateLimiter = new HostRateLimiter(perHostRate);
+        this.totalTimeoutMillis = totalTimeout.toMillis();
+        this.maxBodyBytes = maxBodyBytes;
+        this.connectionsOpened = Counter.builder("extractor.fetch.connections.opened")
+                .description("New connections opened to fetch pages; the rest of the requests reused one")
+                .register(meterRegistry);
+        this.requests = Counter.builder("extractor.fetch.requests")
+                .description("Page requests sent, including conditional ones")
+                .register(meterRegistry);
+        CachingDnsResolver dnsResolver = new CachingDnsResolver(dnsTtl.toNanos());
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(perHostConcurrency)
+                .setDnsResolver(dnsResolver)
+                .setConnectionFactory(socket -> {
+                    connectionsOpened.increment();
+                    return ManagedHttpClientConnectionFactory.INSTANCE.createConnection(socket);
+                })
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .build())
+                .setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(Timeout.of(readTimeout)).build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setUserAgent(USER_AGENT)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .setRedirectsEnabled(true)
+                        .build())
+                .disableCookieManagement()
+                .build();
+        ScheduledThreadPoolExecutor deadlines = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "page-fetch-deadline");
+            t.setDaemon(true);
+            return t;
+        });
+        // Nearly every deadline is cancelled long before it fires; drop those from the queue at once
+        deadlines.setRemoveOnCancelPolicy(true);
+        this.deadlines = deadlines;
+        this.hostWait = Timer.builder("extractor.fetch.host.wait")
+                .description("Time a fetch queued for its host's concurrency and rate limits")
+                .register(meterRegistry);
+        Gauge.builder("extractor.fetch.host.waiting", waiting, AtomicInteger::get)
+                .description("Fetches currently queued behind their host's limits")
+                .register(meterRegistry);
+        FunctionCounter.builder("extractor.fetch.dns", dnsResolver, CachingDnsResolver::hits).tag("outcome", "hit").register(meterRegistry);
+        FunctionCounter.builder("extractor.fetch.dns", dnsResolver, CachingDnsResolver::misses).tag("outcome", "miss").register(meterRegistry);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "page-fetcher").bindTo(meterRegistry);
+    }
+
+    /**
+     * Sends a GET and returns once the response headers are in. The caller reads the body and
+     * must close the response. Queueing for the host and the whole exchange, body included, are
+     * aborted total-timeout after this call.
+     * @param headers Extra request headers (e.g. conditional GET validators)
+     * @throws IOException if the request fails or times out; HTTP error statuses are returned as-is
+     */
+    public Response fetch(String url, Map<String, String> headers) throws IOException, InterruptedException {
+        HttpGet request;
+        try {
+            request = new HttpGet(URI.create(url));
+        } catch (IllegalArgumentException e) {
+            throw new MalformedURLException(e.getMessage());
+        }
+        headers.forEach(request::setHeader);
+        String host = HostConcurrencyLimiter.hostOf(url);
+        Deadline deadline = new Deadline(request);
+        try {
+            acquireHost(host, deadline);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            deadline.cancel();
+            throw e;
+        }
+        try {
+            HttpClientContext context = HttpClientContext.create();
+            requests.increment();
+            ClassicHttpResponse response = httpClient.executeOpen(null, request, context);
+            try {
+                return new Response(response, finalUrl(request, context), host, deadline);
+            } catch (IOException | RuntimeException e) {
+                response.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            deadline.cancel();
+            hostLimiter.release(host);
+            throw deadline.translate(e);
+        } catch (RuntimeException e) {
+            deadline.cancel();
+            hostLimiter.release(host);
+            throw e;
+        }
+    }
+
+    // Helper: Wait for a concurrency slot and then a rate slot for the host, at most until the deadline
+    private void acquireHost(String host, Deadline deadline) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            if (!hostLimiter.tryAcquire(host, deadline.remainingNanos(), TimeUnit.NANOSECONDS)) {
+                throw deadline.timeout("waiting for a connection slot to " + host);
+            }
+            boolean admitted = false;
+            try {
+                admitted = hostRateLimiter.acquire(host, deadline.expiresAtNanos);
+            } finally {
+                if (!admitted) hostLimiter.release(host);
+            }
+            if (!admitted) throw deadline.timeout("waiting for the request rate limit of " + host);
+        } finally {
+            waiting.decrementAndGet();
+            hostWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // One fetch's total timeout, running from the call: when it fires it aborts the request, and
+    // the I/O errors the abort causes are reported as a timeout
+    private class Deadline {
+        private final long expiresAtNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(totalTimeoutMillis);
+        private final ScheduledFuture<?> abort;
+        private volatile boolean fired;
+
+        Deadline(HttpGet request) {
+            this.abort = deadlines.schedule(() -> {
+                fired = true;
+                request.cancel();
+            }, totalTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        long remainingNanos() {
+            return Math.max(0, expiresAtNanos - System.nanoTime());
+        }
+
+        void cancel() {
+            abort.cancel(false);
+        }
+
+        InterruptedIOException timeout(String stage) {
+            return new InterruptedIOException("Total timeout of " + totalTimeoutMillis + " ms reached " + stage);
+        }
+
+        IOException translate(IOException e) {
+            if (!fired || e instanceof InterruptedIOException) return e;
+            InterruptedIOException timeout = timeout("during the exchange");
+            timeout.initCause(e);
+            return timeout;
+        }
+    }
+
+    private static URI finalUrl(HttpGet request, HttpClientContext context) {
+        RedirectLocations redirects = context.getRedirectLocations();
+        List<URI> locations = redirects == null ? List.of() : redirects.getAll();
+        if (!locations.isEmpty()) return locations.get(locations.size() - 1);
+        try {
+            return request.getUri();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Reports the errors of reads the deadline aborted as a timeout
+    private static class DeadlineInputStream extends FilterInputStream {
+        private final Deadline deadline;
+
+        DeadlineInputStream(InputStream in, Deadline deadline) {
+            super(in);
+            this.deadline = deadline;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (IOException e) {
+                throw deadline.translate(e);
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            try {
+                return super.read(buffer, offset, length);
+            } catch (IOException e) {
+                throw deadline.translate(e);
+            }
+        }
+    }
+
+    // Ends the stream after limit bytes, like jsoup's maxBodySize: long pages are truncated, not rejected
+    private static class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int b = super.read();
+            if (b >= 0) remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) return -1;
+            int n = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (n > 0) remaining -= n;
+            return n;
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        deadlines.shutdownNow();
+        httpClient.close();
+    }
+}
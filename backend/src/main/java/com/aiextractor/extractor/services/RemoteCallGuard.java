@@ -0,0 +1,291 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.utils.AdaptiveConcurrencyLimit;
+import com.aiextractor.extractor.utils.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Resilience around calls to the remote summarizer: a circuit breaker that fails calls fast
+ * while the remote is unhealthy, an adaptive concurrency limit, and optional hedged requests.
+ */
+@Component
+public class RemoteCallGuard {
+    /**
+     * Thrown instead of calling the remote when the breaker is open or no concurrency slot
+     * frees up before the deadline.
+     */
+    public static class RejectedException extends IOException {
+        public RejectedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * One admitted call. Report its outcome exactly once.
+     */
+    public class Permit {
+        private final long startNanos = System.nanoTime();
+        private boolean done;
+
+        public void success() {
+            finish(true);
+        }
+
+        public void failure() {
+            finish(false);
+        }
+
+        /**
+         * The caller gave up on the call; it counts neither for nor against the remote.
+         */
+        public void cancel() {
+            if (!markDone()) return;
+            limit.cancel();
+            breaker.onIgnored();
+            cancelled.increment();
+        }
+
+        private synchronized boolean markDone() {
+            if (done) return false;
+            done = true;
+            return true;
+        }
+
+        private void finish(boolean success) {
+            if (!markDone()) return;
+            long latency = System.nanoTime() - startNanos;
+            limit.release(success, latency);
+            if (success) breaker.onSuccess(); else breaker.onFailure();
+            callTimer.record(latency, TimeUnit.NANOSECONDS);
+            (success ? successes : failures).increment();
+        }
+    }
+
+    private final CircuitBreaker breaker;
+    private final AdaptiveConcurrencyLimit limit;
+    private final boolean hedging;
+    private final long hedgeDelayMillis;
+    private final Timer callTimer;
+    private final Counter successes;
+    private final Counter failures;
+    private final Counter rejected;
+    private final Counter cancelled;
+    private final Counter hedges;
+    private final Counter skippedHedges;
+
+    public RemoteCallGuard(MeterRegistry meterRegistry,
+                           @Value("${extractor.hf.breaker.window:20}") int window,
+                           @Value("${extractor.hf.breaker.minimum-calls:5}") int minimumCalls,
+                           @Value("${extractor.hf.breaker.failure-rate:0.5}") double failureRate,
+                           @Value("${extractor.hf.breaker.open-duration:30s}") Duration openDuration,
+                           @Value("${extractor.hf.breaker.half-open-calls:2}") int halfOpenCalls,
+                           @Value("${extractor.hf.limit.initial:4}") int initialLimit,
+                           @Value("${extractor.hf.max-in-flight:8}") int maxLimit,
+                           @Value("${extractor.hf.limit.latency-target:10s}") Duration latencyTarget,
+                           @Value("${extractor.hf.hedging.enabled:false}") boolean hedging,
+                           @Value("${extractor.hf.hedging.delay:3s}") Duration hedgeDelay) {
+        this.breaker = new CircuitBreaker(window, minimumCalls, failureRate, openDuration.toNanos(), halfOpenCalls,
+                System::nanoTime, (from, to) -> Counter.builder("extractor.hf.breaker.transitions")
+                        .tag("from", from.name().toLowerCase())
+                        .tag("to", to.name().toLowerCase())
+                        .register(meterRegistry)
+                        .increment());
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, 1, maxLimit, latencyTarget.toNanos());
+        this.hedging = hedging;
+        this.hedgeDelayMillis = hedgeDelay.toMillis();
+        this.callTimer = Timer.builder("extractor.hf.call")
+                .description("Latency of remote summarization calls")
+                .register(meterRegistry);
+        this.successes = callCounter(meterRegistry, "success");
+        this.failures = callCounter(meterRegistry, "failure");
+        this.rejected = callCounter(meterRegistry, "rejected");
+        this.cancelled = callCounter(meterRegistry, "cancelled");
+        this.hedges = Counter.builder("extractor.hf.hedges")
+                .description("Duplicate requests sent because the first was slow")
+                .register(meterRegistry);
+        this.skippedHedges = Counter.builder("extractor.hf.hedges.skipped")
+                .description("Duplicate requests not sent because no concurrency slot was free or the breaker refused")
+                .register(meterRegistry);
+        Gauge.builder("extractor.hf.breaker.state", breaker, b -> b.state().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+        Gauge.builder("extractor.hf.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit).register(meterRegistry);
+        Gauge.builder("extractor.hf.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::inFlight).register(meterRegistry);
+    }
+
+    /**
+     * False while the breaker is open: callers should go straight to the local summarizer.
+     */
+    public boolean isAvailable() {
+        return breaker.isCallPermitted();
+    }
+
+    /**
+     * Admits a call, waiting for a concurrency slot until the deadline at the latest.
+     * @param deadlineNanos System.nanoTime() value by which the whole operation must finish
+     * @throws RejectedException if the breaker is open or no slot freed up in time
+     */
+    public Permit enter(long deadlineNanos) throws RejectedException, InterruptedException {
+        if (!limit.acquire(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            rejected.increment();
+            throw new RejectedException("No remote summarization slot before the deadline");
+        }
+        if (!breaker.tryAcquire()) {
+            limit.cancel();
+            rejected.increment();
+            throw new RejectedException("Remote summarization circuit is open");
+        }
+        return new Permit();
+    }
+
+    /**
+     * Admits a call only if a concurrency slot is free right now and the breaker lets it through.
+     * @return The permit, or null if the call should not be made
+     */
+    public Permit tryEnter() {
+        if (!limit.tryAcquire()) return null;
+        if (!breaker.tryAcquire()) {
+            limit.cancel();
+            return null;
+        }
+        return new Permit();
+    }
+
+    /**
+     * Runs the call under a permit (see enter) and reports its outcome: a result counts as a
+     * success if succeeded accepts it. With hedging enabled, runs the call a second time under a
+     * permit of its own, if tryEnter grants one, when the first has no result after hedging.delay
+     * or fails sooner. The first successful result wins; if neither attempt succeeds, the last
+     * response, or failing that the last error, is the result. Cancelling the returned future
+     * cancels the attempts.
+     * @throws RejectedException if the breaker is open or no slot freed up in time
+     */
+    public <T> CompletableFuture<T> call(long deadlineNanos, Supplier<CompletableFuture<T>> call, Predicate<T> succeeded)
+            throws RejectedException, InterruptedException {
+        CompletableFuture<T> first = attempt(enter(deadlineNanos), call, succeeded);
+        if (!hedging) return first;
+        HedgedCall<T> hedged = new HedgedCall<>(call, succeeded);
+        hedged.race(first, true);
+        CompletableFuture.delayedExecutor(hedgeDelayMillis, TimeUnit.MILLISECONDS).execute(hedged::hedge);
+        return hedged.result;
+    }
+
+    // One hedged call: at most two attempts racing for the result
+    private class HedgedCall<T> {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        private final Supplier<CompletableFuture<T>> call;
+        private final Predicate<T> succeeded;
+        private final List<CompletableFuture<T>> attempts = new CopyOnWriteArrayList<>();
+        // Attempts (made or skipped) that have not failed yet
+        private final AtomicInteger pending = new AtomicInteger(2);
+        private final AtomicBoolean hedgeStarted = new AtomicBoolean();
+        private volatile T lastResponse;
+        private volatile Throwable lastError;
+
+        HedgedCall(Supplier<CompletableFuture<T>> call, Predicate<T> succeeded) {
+            this.call = call;
+            this.succeeded = succeeded;
+            result.whenComplete((value, error) -> {
+                if (error instanceof CancellationException) attempts.forEach(attempt -> attempt.cancel(true));
+            });
+        }
+
+        void race(CompletableFuture<T> attempt, boolean first) {
+            attempts.add(attempt);
+            attempt.whenComplete((value, error) -> {
+                if (error == null && succeeded.test(value)) {
+                    result.complete(value);
+                    return;
+                }
+                if (error == null) {
+                    lastResponse = value;
+                } else {
+                    lastError = error;
+                }
+                // A fast failure (e.g. connection refused) does not wait out hedging.delay
+                if (first) hedge();
+                failed();
+            });
+        }
+
+        void hedge() {
+            if (!hedgeStarted.compareAndSet(false, true)) return;
+            if (result.isDone()) {
+                failed();
+                return;
+            }
+            // The hedge adds load exactly when the remote is slow, so it must fit within the limit
+            Permit permit = tryEnter();
+            if (permit == null) {
+                skippedHedges.increment();
+                failed();
+                return;
+            }
+            hedges.increment();
+            CompletableFuture<T> second;
+            try {
+                second = attempt(permit, call, succeeded);
+            } catch (RuntimeException e) {
+                lastError = e;
+                failed();
+                return;
+            }
+            race(second, false);
+        }
+
+        // Helper: Once no attempt is left, report the last response, or failing that the last error
+        private void failed() {
+            if (pending.decrementAndGet() > 0) return;
+            T response = lastResponse;
+            if (response != null) {
+                result.complete(response);
+            } else {
+                result.completeExceptionally(lastError);
+            }
+        }
+    }
+
+    // Helper: Start one attempt and report its outcome on the permit; a cancelled attempt counts neither way
+    private static <T> CompletableFuture<T> attempt(Permit permit, Supplier<CompletableFuture<T>> call, Predicate<T> succeeded) {
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            permit.failure();
+            throw e;
+        }
+        future.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                permit.cancel();
+            } else if (error != null || !succeeded.test(value)) {
+                permit.failure();
+            } else {
+                permit.success();
+            }
+        });
+        return future;
+    }
+
+    private static Counter callCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("extractor.hf.calls")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,200 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.utils.ContentCodec;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Versioned schema migrations for extractor.schema.migrations.enabled=true, which replaces
+ * spring.jpa.hibernate.ddl-auto. Scripts are V&lt;version&gt;__&lt;description&gt;.sql files under
+ * extractor.schema.migrations.location; pending ones run in version order before the
+ * EntityManagerFactory is built, each in one transaction with its schema_version row. A database
+ * that has extracted_content but no schema_version (created by ddl-auto=update, possibly by a
+ * release before some of the tables and columns) runs version 1 too, which only adds what is
+ * missing, and its id sequence is then moved past the existing rows. Applied scripts must not
+ * change: a checksum mismatch stops startup.
+ */
+@Component
+@Lazy(false)
+public class SchemaMigrator {
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String LOCK_NAME = "schema-migration";
+    private static final String CREATE_HISTORY = "create table if not exists schema_version ("
+            + "version integer not null primary key, description varchar(200) not null, checksum varchar(64) not null, "
+            + "installed_at timestamp with time zone not null)";
+    private static final String RECORD = "insert into schema_version (version, description, checksum, installed_at)"
+            + " values (?, ?, ?, current_timestamp)";
+
+    private record Migration(int version, String description, Resource script, String checksum) {
+        @Override
+        public String toString() {
+            return "V" + version + "__" + description;
+        }
+    }
+
+    private final DataSource dataSource;
+    private final AdvisoryLocks advisoryLocks;
+    private final boolean enabled;
+    private final String location;
+    private final Duration lockTimeout;
+
+    public SchemaMigrator(DataSource dataSource,
+                          AdvisoryLocks advisoryLocks,
+                          @Value("${extractor.schema.migrations.enabled:false}") boolean enabled,
+                          @Value("${extractor.schema.migrations.location:classpath:db/migration}") String location,
+                          @Value("${extractor.schema.migrations.lock-timeout:5m}") Duration lockTimeout) {
+        this.dataSource = dataSource;
+        this.advisoryLocks = advisoryLocks;
+        this.enabled = enabled;
+        this.location = location;
+        this.lockTimeout = lockTimeout;
+    }
+
+    @PostConstruct
+    public void migrate() throws IOException, SQLException, InterruptedException {
+        if (!enabled) return;
+        List<Migration> migrations = scan();
+        if (!advisoryLocks.isSupported()) {
+            migrate(migrations);
+            return;
+        }
+        // Replicas starting together migrate one after another; the later ones find nothing pending
+        try (AdvisoryLocks.Lock lock = advisoryLocks.tryLock(LOCK_NAME, lockTimeout)) {
+            if (lock == null) {
+                throw new IllegalStateException("Another instance held the schema migration lock for " + lockTimeout);
+            }
+            migrate(migrations);
+        }
+    }
+
+    private void migrate(List<Migration> migrations) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean existingSchema = !tableExists(connection, "schema_version") && tableExists(connection, "extracted_content");
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_HISTORY);
+            }
+            TreeMap<Integer, String> applied = applied(connection);
+            int current = applied.isEmpty() ? 0 : applied.lastKey();
+            int ran = 0;
+            for (Migration migration : migrations) {
+                String checksum = applied.get(migration.version());
+                if (checksum != null) {
+                    if (!checksum.equals(migration.checksum())) {
+                        throw new IllegalStateException("Migration " + migration + " changed after it was applied; "
+                                + "add a new migration instead of editing it");
+                    }
+                } else if (migration.version() < current) {
+                    throw new IllegalStateException("Migration " + migration + " is older than the schema version " + current);
+                } else {
+                    apply(connection, migration, existingSchema && migration.version() == 1);
+                    current = migration.version();
+                    ran++;
+                }
+            }
+            for (int version : applied.keySet()) {
+                if (migrations.stream().noneMatch(m -> m.version() == version)) {
+                    // Usually a newer release already migrated this database
+                    log.warn("Schema version {} was applied by a migration this build does not have", version);
+                }
+            }
+            log.info("Schema at version {}, {} migrations applied in {} ms", current, ran, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Helper: Run the script and record it in one transaction. For version 1 on a schema ddl-auto
+    // created, also move the id sequence past the rows that got their ids from an IDENTITY column
+    private void apply(Connection connection, Migration migration, boolean existingSchema) throws SQLException {
+        long start = System.nanoTime();
+        connection.setAutoCommit(false);
+        try {
+            ScriptUtils.executeSqlScript(connection, new EncodedResource(migration.script(), StandardCharsets.UTF_8));
+            if (existingSchema && "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(IdSequenceAligner.ALIGN_SEQUENCE);
+                }
+            }
+            record(connection, migration);
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            // PostgreSQL rolls the DDL back too; databases without transactional DDL may need manual cleanup
+            connection.rollback();
+            throw new IllegalStateException("Migration " + migration + " failed", e);
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        log.info("Applied migration {}{} in {} ms", migration, existingSchema ? " to the existing schema" : "",
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void record(Connection connection, Migration migration) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(RECORD)) {
+            statement.setInt(1, migration.version());
+            statement.setString(2, migration.description().replace('_', ' '));
+            statement.setString(3, migration.checksum());
+            statement.executeUpdate();
+        }
+    }
+
+    private static TreeMap<Integer, String> applied(Connection connection) throws SQLException {
+        TreeMap<Integer, String> applied = new TreeMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("select version, checksum from schema_version")) {
+            while (rs.next()) applied.put(rs.getInt(1), rs.getString(2));
+        }
+        return applied;
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String name = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase() : table;
+        try (ResultSet rs = metaData.getTables(connection.getCatalog(), connection.getSchema(), name, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    // Helper: Scripts under the location in version order; line endings do not count towards the checksum
+    private List<Migration> scan() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(location + "/V*__*.sql");
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource resource : resources) {
+            Matcher name = SCRIPT_NAME.matcher(resource.getFilename() == null ? "" : resource.getFilename());
+            if (!name.matches()) throw new IllegalStateException("Unexpected migration file name: " + resource.getFilename());
+            String text = resource.getContentAsString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+            migrations.add(new Migration(Integer.parseInt(name.group(1)), name.group(2), resource, ContentCodec.hash(text)));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Two migrations with version " + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+}
@@ -0,0 +1,187 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.ExtractedContent;
+import com.aiextractor.extractor.models.ExtractedContentRepository;
+import com.aiextractor.extractor.utils.ContentSearchIndex;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+/**
+ * Keeps the Lucene search index in step with the extracted_content table and answers searches
+ * for GET /api/extracted. With extractor.search.engine=like the index is not used and searches
+ * fall back to the repository's LIKE query.
+ */
+@Service
+public class SearchIndexService {
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexService.class);
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private final ExtractedContentRepository extractedContentRepository;
+    private final ContentSearchIndex index;
+    private final ScheduledExecutorService committer;
+
+    public SearchIndexService(ExtractedContentRepository extractedContentRepository,
+                              @Value("${extractor.search.engine:lucene}") String engine,
+                              @Value("${extractor.search.index-dir:}") String indexDir,
+                              @Value("${extractor.search.commit-interval:5s}") Duration commitInterval) throws IOException {
+        this.extractedContentRepository = extractedContentRepository;
+        if (!"lucene".equalsIgnoreCase(engine)) {
+            this.index = null;
+            this.committer = null;
+        } else {
+            Directory directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+            this.index = new ContentSearchIndex(directory);
+            // Only an on-disk index outlives the process; an in-memory one is rebuilt at startup anyway
+            this.committer = indexDir.isBlank() ? null : Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "search-index-commit");
+                t.setDaemon(true);
+                return t;
+            });
+            if (committer != null) {
+                committer.scheduleWithFixedDelay(this::commit, commitInterval.toMillis(), commitInterval.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return index != null;
+    }
+
+    /**
+     * Rebuilds the index at startup when it is out of step with the table: always for an
+     * in-memory index, and after a crash or out-of-band writes for an on-disk one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncOnStartup() throws IOException {
+        if (index == null) return;
+        long rows = extractedContentRepository.count();
+        if (rows != index.size()) {
+            long indexed = rebuild();
+            log.info("Search index rebuilt with {} documents", indexed);
+        }
+    }
+
+    /**
+     * Replaces the index with the current contents of the table.
+     * @return Number of rows indexed
+     */
+    public long rebuild() throws IOException {
+        if (index == null) return 0;
+        return index.rebuild(TablePageIterator::new);
+    }
+
+    public ContentSearchIndex.Hits search(String query, int page, int size) throws IOException {
+        return index.search(query, page * size, size);
+    }
+
+    /**
+     * Highlighted snippet of the matching passages, or null if none.
+     */
+    public String highlight(String query, String content) throws IOException {
+        return index.highlight(query, content, 2);
+    }
+
+    public void indexSaved(ExtractedContent entity) {
+        if (index == null || entity.getId() == null) return;
+        try {
+            index.update(toEntry(entity));
+        } catch (IOException e) {
+            // The row is stored; the index is repaired by the next rebuild
+            log.warn("Search index update failed for id {}", entity.getId(), e);
+        }
+    }
+
+    public void indexSavedAll(Iterable<ExtractedContent> entities) {
+        if (index == null) return;
+        try {
+            index.updateAll(StreamSupport.stream(entities.spliterator(), false)
+                    .filter(e -> e.getId() != null)
+                    .map(SearchIndexService::toEntry)
+                    .toList());
+        } catch (IOException e) {
+            log.warn("Search index update failed", e);
+        }
+    }
+
+    public void indexDeleted(Long id) {
+        if (index == null) return;
+        try {
+            index.delete(id);
+        } catch (IOException e) {
+            log.warn("Search index delete failed for id {}", id, e);
+        }
+    }
+
+    private void commit() {
+        try {
+            index.commit();
+        } catch (IOException | RuntimeException e) {
+            // Retried at the next interval; a crash before then is repaired by the startup sync
+            log.warn("Search index commit failed", e);
+        }
+    }
+
+    private static ContentSearchIndex.Entry toEntry(ExtractedContent entity) {
+        return new ContentSearchIndex.Entry(entity.getId(), entity.getUrl(), entity.getContent());
+    }
+
+    // Reads the table in id order, one page at a time, so a rebuild never holds every row in memory
+    private class TablePageIterator implements Iterator<ContentSearchIndex.Entry> {
+        private int page;
+        private List<ExtractedContent> rows = new ArrayList<>();
+        private int position;
+        private boolean last;
+
+        @Override
+        public boolean hasNext() {
+            if (position < rows.size()) return true;
+            if (last) return false;
+            Page<ExtractedContent> next = extractedContentRepository.findAllWithBlobs(PageRequest.of(page++, REBUILD_PAGE_SIZE, Sort.by("id")));
+            rows = next.getContent();
+            position = 0;
+            last = !next.hasNext();
+            return !rows.isEmpty();
+        }
+
+        @Override
+        public ContentSearchIndex.Entry next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return toEntry(rows.get(position++));
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (index == null) return;
+        if (committer != null) committer.shutdownNow();
+        try {
+            index.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.SummaryRecord;
+import com.aiextractor.extractor.models.SummaryRecordRepository;
+import com.aiextractor.extractor.models.SummaryResponse;
+import com.aiextractor.extractor.utils.WeightedLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memoizes summaries by a hash of the normalized text, so mirrors, tracking-parameter variants
+ * and re-submissions of the same article are summarized once. Lookups go to a bounded in-memory
+ * cache first, then to the summary_cache table.
+ */
+@Component
+public class SummaryMemo {
+    private final SummarizationService summarizationService;
+    private final SummaryRecordRepository summaryRecordRepository;
+    private final boolean enabled;
+    private final WeightedLruCache<String, SummaryResponse> cache;
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+    private final Timer computeTimer;
+    private final Counter savedSeconds;
+
+    public SummaryMemo(SummarizationService summarizationService,
+                       SummaryRecordRepository summaryRecordRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${extractor.summary-cache.enabled:true}") boolean enabled,
+                       @Value("${extractor.summary-cache.max-bytes:16777216}") long maxBytes) {
+        this.summarizationService = summarizationService;
+        this.summaryRecordRepository = summaryRecordRepository;
+        this.enabled = enabled;
+        this.cache = new WeightedLruCache<>(maxBytes, SummaryMemo::weight);
+        this.memoryHits = requestCounter(meterRegistry, "memory");
+        this.databaseHits = requestCounter(meterRegistry, "database");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.computeTimer = Timer.builder("extractor.summary.compute")
+                .description("Time spent actually summarizing text (cache misses)")
+                .register(meterRegistry);
+        this.savedSeconds = Counter.builder("extractor.summary.cache.saved")
+                .description("Estimated summarization time saved by cache hits (mean compute time per hit)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("extractor.summary.cache.hit.ratio", this, SummaryMemo::hitRatio).register(meterRegistry);
+        Gauge.builder("extractor.summary.cache.size", cache, WeightedLruCache::size).register(meterRegistry);
+        Gauge.builder("extractor.summary.cache.bytes", cache, WeightedLruCache::weight).baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * Summary and key points for the text, computed only if this text was never summarized
+     * with the same summarizer and settings.
+     */
+    public SummaryResponse summarize(String text, int numSentences) {
+        return summarize(text, numSentences, ExtractionListener.NONE);
+    }
+
+    /**
+     * Same as {@link #summarize(String, int)}; when the summary is computed, the listener gets
+     * the chunk summaries as they are produced.
+     */
+    public SummaryResponse summarize(String text, int numSentences, ExtractionListener listener) {
+        if (!enabled) {
+            return toResponse(summarizationService.summarizeWithSource(text, numSentences, listener).result());
+        }
+        String key = key(summarizationService.preferredSummarizer(), numSentences, text);
+        SummaryResponse cached = cache.get(key);
+        if (cached != null) {
+            memoryHits.increment();
+            recordSaved();
+            return cached;
+        }
+        SummaryRecord stored = summaryRecordRepository.findById(key).orElse(null);
+        if (stored != null) {
+            databaseHits.increment();
+            recordSaved();
+            SummaryResponse response = new SummaryResponse(stored.getSummary(), stored.getKeyPoints());
+            cache.put(key, response);
+            return response;
+        }
+        misses.increment();
+        long start = System.nanoTime();
+        SummarizationService.SourcedSummary result = summarizationService.summarizeWithSource(text, numSentences, listener);
+        computeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        SummaryResponse response = toResponse(result.result());
+        // A local fallback after a HuggingFace failure must not be remembered as the HuggingFace summary
+        if (result.source().equals(summarizationService.preferredSource())) {
+            cache.put(key, response);
+            try {
+                summaryRecordRepository.save(new SummaryRecord(key, response.getSummary(), response.getKeyPoints()));
+            } catch (DataIntegrityViolationException e) {
+                // Another request stored the same text first
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Memo key: SHA-256 of the summarizer (with its model and settings, see
+     * SummarizationService.preferredSummarizer), the sentence count and the whitespace-normalized
+     * text. Changing the model or settings therefore starts a fresh set of entries.
+     */
+    static String key(String summarizer, int numSentences, String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((summarizer + ":" + numSentences + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(normalize(text).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Helper: Collapse whitespace runs and trim, so re-extractions differing only in layout match
+    private static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) || c == '\u00a0') {
+                pendingSpace = sb.length() > 0;
+            } else {
+                if (pendingSpace) sb.append(' ');
+                pendingSpace = false;
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private void recordSaved() {
+        if (computeTimer.count() > 0) {
+            savedSeconds.increment(computeTimer.mean(TimeUnit.SECONDS));
+        }
+    }
+
+    private double hitRatio() {
+        double hits = memoryHits.count() + databaseHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SummaryResponse toResponse(Map<String, Object> result) {
+        return new SummaryResponse((String) result.get("summary"), (List<String>) result.get("keyPoints"));
+    }
+
+    private static long weight(SummaryResponse response) {
+        // Rough heap footprint: UTF-16 chars plus object/header overhead
+        long weight = 160L;
+        if (response.getSummary() != null) weight += 2L * response.getSummary().length();
+        if (response.getKeyPoints() != null) {
+            for (String point : response.getKeyPoints()) weight += 48L + 2L * point.length();
+        }
+        return weight;
+    }
+
+    private static Counter requestCounter(MeterRegistry registry, String result) {
+        return Counter.builder("extractor.summary.cache.requests")
+                .tag("result", result)
+                .register(registry);
+    }
+}
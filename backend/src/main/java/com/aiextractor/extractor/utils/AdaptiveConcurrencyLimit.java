@@ -0,0 +1,77 @@
+package com.aiextractor.extractor.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrency limit that adapts to how the downstream service copes (AIMD): it grows by about
+ * one every limit fast successes, shrinks slightly on slow ones, and halves on failures.
+ */
+public class AdaptiveConcurrencyLimit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Waits up to the timeout for a slot.
+     * @return false if no slot became free in time
+     */
+    public synchronized boolean acquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (inFlight >= (int) limit) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) return false;
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Takes a slot only if one is free right now.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) return false;
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Frees the slot and adjusts the limit from the call's outcome.
+     */
+    public synchronized void release(boolean success, long latencyNanos) {
+        inFlight--;
+        if (!success) {
+            limit = Math.max(minLimit, limit / 2);
+        } else if (latencyNanos <= latencyTargetNanos) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        } else {
+            limit = Math.max(minLimit, limit * 0.9);
+        }
+        notifyAll();
+    }
+
+    /**
+     * Frees a slot that was not used for a call, leaving the limit as it is.
+     */
+    public synchronized void cancel() {
+        inFlight--;
+        notifyAll();
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,64 @@
+package com.aiextractor.extractor.utils;
+
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * DNS resolver that remembers successful lookups for a fixed time, so repeated fetches from the
+ * same host skip the resolver round trip. Failed lookups are not cached.
+ */
+public class CachingDnsResolver implements DnsResolver {
+    private record Entry(InetAddress[] addresses, long expiresAtNanos) {}
+
+    private final DnsResolver delegate;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingDnsResolver(long ttlNanos) {
+        this(SystemDefaultDnsResolver.INSTANCE, ttlNanos, System::nanoTime);
+    }
+
+    public CachingDnsResolver(DnsResolver delegate, long ttlNanos, LongSupplier clock) {
+        this.delegate = delegate;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        String key = host.toLowerCase(Locale.ROOT);
+        Entry entry = cache.get(key);
+        long now = clock.getAsLong();
+        if (entry != null && now - entry.expiresAtNanos() < 0) {
+            hits.incrementAndGet();
+            return entry.addresses().clone();
+        }
+        misses.incrementAndGet();
+        InetAddress[] addresses = delegate.resolve(host);
+        cache.put(key, new Entry(addresses.clone(), now + ttlNanos));
+        return addresses;
+    }
+
+    @Override
+    public String resolveCanonicalHostname(String host) throws UnknownHostException {
+        return delegate.resolveCanonicalHostname(host);
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+}
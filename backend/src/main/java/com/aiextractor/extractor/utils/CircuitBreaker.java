@@ -0,0 +1,132 @@
+package com.aiextractor.extractor.utils;
+
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. It opens when the failure rate over the last windowSize calls
+ * reaches the threshold, rejects calls while open, and after openDuration lets a few trial calls
+ * through (half-open): if they all succeed it closes again, any failure re-opens it.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+    private final BiConsumer<State, State> onTransition;
+
+    // Ring buffer of recent outcomes while closed
+    private final boolean[] failures;
+    private int recorded;
+    private int next;
+    private int failureCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    /**
+     * @param onTransition Called with (from, to) on every state change, under the breaker's lock
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openDurationNanos,
+                          int halfOpenCalls, LongSupplier clock, BiConsumer<State, State> onTransition) {
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDurationNanos;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.onTransition = onTransition;
+        this.failures = new boolean[windowSize];
+    }
+
+    /**
+     * Whether a call may go ahead now. Every permitted call must be followed by exactly one
+     * onSuccess or onFailure.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openDurationNanos) return false;
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) return false;
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    /**
+     * Whether tryAcquire would currently let a call through, without taking a trial slot.
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> clock.getAsLong() - openedAt >= openDurationNanos;
+            case HALF_OPEN -> trialsStarted < halfOpenCalls;
+        };
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialsSucceeded >= halfOpenCalls) transition(State.CLOSED);
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transition(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failureCount >= failureRateThreshold * recorded) {
+                transition(State.OPEN);
+            }
+        }
+    }
+
+    /**
+     * Ends a permitted call that says nothing about the remote's health (e.g. cancelled by the
+     * caller). A half-open trial slot is handed back.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && trialsStarted > 0) trialsStarted--;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == windowSize) {
+            if (failures[next]) failureCount--;
+        } else {
+            recorded++;
+        }
+        failures[next] = failure;
+        if (failure) failureCount++;
+        next = (next + 1) % windowSize;
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        if (to == State.OPEN) {
+            openedAt = clock.getAsLong();
+        } else if (to == State.HALF_OPEN) {
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        } else {
+            recorded = 0;
+            next = 0;
+            failureCount = 0;
+        }
+        onTransition.accept(from, to);
+    }
+}
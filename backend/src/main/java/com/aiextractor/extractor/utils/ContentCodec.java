@@ -0,0 +1,75 @@
+package com.aiextractor.extractor.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compression and content addressing for stored article text: raw Deflate (no zlib header or
+ * checksum, the hash already identifies the content) over the UTF-8 bytes, and a SHA-256 key.
+ */
+public class ContentCodec {
+    /** Codec name stored with each blob, so another codec can be added without rewriting old blobs. */
+    public static final String DEFLATE = "deflate";
+
+    // Fastest level: text is compressed on the request path, and inflating costs the same at any level
+    private static final int LEVEL = Deflater.BEST_SPEED;
+
+    /**
+     * Hex SHA-256 of the text's UTF-8 bytes (64 characters).
+     */
+    public static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static byte[] compress(byte[] raw) {
+        Deflater deflater = new Deflater(LEVEL, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            // Worst case for incompressible input is a few bytes per 16 KB block over the raw size
+            byte[] out = new byte[raw.length + raw.length / 1000 + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == out.length) out = Arrays.copyOf(out, out.length * 2);
+                length += deflater.deflate(out, length, out.length - length);
+            }
+            return Arrays.copyOf(out, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * @param rawBytes Exact length of the uncompressed UTF-8 bytes
+     */
+    public static String decompress(byte[] data, int rawBytes) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            byte[] raw = new byte[rawBytes];
+            int length = 0;
+            while (length < rawBytes && !inflater.finished()) {
+                int n = inflater.inflate(raw, length, rawBytes - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                length += n;
+            }
+            if (length != rawBytes) throw new IllegalStateException("Blob inflated to " + length + " bytes, expected " + rawBytes);
+            return new String(raw, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt blob", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.aiextractor.extractor.utils;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.NodeFilter;
+import org.jsoup.select.NodeTraversor;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Single-pass main content extraction based on text density.
+ * One DOM walk removes boilerplate subtrees and accumulates text length and link text length
+ * bottom-up, scoring every candidate block as it is closed. Only the winning element's text is
+ * ever materialized.
+ */
+public class ContentDensityExtractor {
+    /** Minimum amount of text a candidate needs before it can beat the body fallback. */
+    public static final int MIN_TEXT_LENGTH = 200;
+
+    private static final Set<String> BOILERPLATE_TAGS = Set.of(
+            "nav", "footer", "aside", "header", "form", "script", "style", "noscript", "ads");
+    private static final Set<String> BOILERPLATE_LABELS = Set.of("sidebar", "footer", "navigation");
+    private static final String[] NEGATIVE_HINTS = {
+            "comment", "sidebar", "footer", "share", "related", "promo", "sponsor", "widget", "banner", "social", "cookie"};
+    private static final String[] POSITIVE_HINTS = {"content", "article", "post", "entry", "story", "text"};
+
+    /**
+     * Extracts the main text of the document. Boilerplate elements are removed from it in place.
+     */
+    public static String extract(Document doc) {
+        DensityFilter filter = new DensityFilter();
+        NodeTraversor.filter(filter, doc);
+        if (filter.best != null) {
+            return filter.best.text().trim();
+        }
+        return doc.body() != null ? doc.body().text().trim() : "";
+    }
+
+    /**
+     * Returns true for elements the extractor never keeps: navigation, chrome, scripts and ads.
+     */
+    public static boolean isBoilerplate(Element el) {
+        if (BOILERPLATE_TAGS.contains(el.normalName())) return true;
+        if (el.hasClass("ads")) return true;
+        if (el.attributesSize() == 0) return false;
+        if (el.attr("role").trim().equalsIgnoreCase("advertisement")) return true;
+        String label = el.attr("aria-label");
+        return !label.isEmpty() && BOILERPLATE_LABELS.contains(label.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Approximate length of the element's rendered text, computed without building the string.
+     */
+    public static int textLength(Element el) {
+        int[] length = {0};
+        NodeTraversor.traverse((node, depth) -> {
+            if (node instanceof TextNode textNode) length[0] += normalizedLength(textNode.getWholeText());
+        }, el);
+        return length[0];
+    }
+
+    // Helper: Length of the text as jsoup would render it, with whitespace runs collapsed to one char
+    static int normalizedLength(String text) {
+        int len = 0;
+        boolean lastWasSpace = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean space = c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u00a0';
+            if (!space) {
+                len++;
+                lastWasSpace = false;
+            } else if (!lastWasSpace) {
+                len++;
+                lastWasSpace = true;
+            }
+        }
+        return len;
+    }
+
+    // Helper: Tag and class/id based multiplier; 0 means the element is not a content candidate
+    private static double weight(Element el) {
+        double weight;
+        switch (el.normalName()) {
+            case "main": weight = 1.5; break;
+            case "article": weight = 1.4; break;
+            case "section":
+            case "div": weight = 1.0; break;
+            case "td": weight = 0.8; break;
+            default: return 0;
+        }
+        if (el.attributesSize() == 0) return weight;
+        String hints = (el.className() + " " + el.id()).toLowerCase(Locale.ROOT);
+        if (hints.isBlank()) return weight;
+        for (String hint : NEGATIVE_HINTS) {
+            if (hints.contains(hint)) return weight * 0.3;
+        }
+        for (String hint : POSITIVE_HINTS) {
+            if (hints.contains(hint)) return weight * 1.2;
+        }
+        return weight;
+    }
+
+    private static class DensityFilter implements NodeFilter {
+        private int[] textLength = new int[32];
+        private int[] linkLength = new int[32];
+        private int top = -1;
+        private int linkDepth;
+        private Element best;
+        private double bestScore;
+
+        @Override
+        public FilterResult head(Node node, int depth) {
+            if (node instanceof TextNode textNode) {
+                if (top >= 0) {
+                    int len = normalizedLength(textNode.getWholeText());
+                    textLength[top] += len;
+                    if (linkDepth > 0) linkLength[top] += len;
+                }
+                return FilterResult.CONTINUE;
+            }
+            if (node instanceof Element el) {
+                if (isBoilerplate(el)) {
+                    return FilterResult.REMOVE;
+                }
+                push();
+                if (el.normalName().equals("a")) linkDepth++;
+            }
+            return FilterResult.CONTINUE;
+        }
+
+        @Override
+        public FilterResult tail(Node node, int depth) {
+            if (!(node instanceof Element el)) {
+                return FilterResult.CONTINUE;
+            }
+            int text = textLength[top];
+            int links = linkLength[top];
+            top--;
+            if (top >= 0) {
+                textLength[top] += text;
+                linkLength[top] += links;
+            }
+            if (el.normalName().equals("a")) linkDepth--;
+            if (text >= MIN_TEXT_LENGTH) {
+                double weight = weight(el);
+                if (weight > 0) {
+                    // Squared non-link ratio: wrappers that add link lists lose to the block they wrap
+                    double nonLink = text - Math.min(links, text);
+                    double score = nonLink * nonLink / text * weight;
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = el;
+                    }
+                }
+            }
+            return FilterResult.CONTINUE;
+        }
+
+        private void push() {
+            top++;
+            if (top == textLength.length) {
+                textLength = Arrays.copyOf(textLength, top * 2);
+                linkLength = Arrays.copyOf(linkLength, top * 2);
+            }
+            textLength[top] = 0;
+            linkLength[top] = 0;
+        }
+    }
+}
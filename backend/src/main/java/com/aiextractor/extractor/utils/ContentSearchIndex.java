@@ -0,0 +1,239 @@
+package com.aiextractor.extractor.utils;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Full-text index over stored extractions (url and content), kept in a Lucene directory.
+ * Queries use the simple query syntax (words, "phrases", prefix*, -exclusions) and all words
+ * must match. Results are ranked by BM25 relevance. Changes are visible to searches right away
+ * (near-real-time readers) but only durable after commit(), which callers run periodically, or close().
+ */
+public class ContentSearchIndex implements Closeable {
+    /**
+     * One indexed row.
+     */
+    public record Entry(long id, String url, String content) {}
+
+    /**
+     * Ids of one page of results, best match first, and the total number of matches.
+     */
+    public record Hits(long total, List<Long> ids) {}
+
+    private static final String ID = "id";
+    private static final String URL = "url";
+    private static final String CONTENT = "content";
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final Directory directory;
+    // Replaced only when a failed rebuild is rolled back, under the write lock
+    private volatile IndexWriter writer;
+    private volatile SearcherManager searcherManager;
+    private final UnifiedHighlighter highlighter;
+    // Updates and commits share the lock; a rebuild holds it exclusively so nothing publishes it half done
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    public ContentSearchIndex(Directory directory) throws IOException {
+        this.directory = directory;
+        this.writer = openWriter();
+        this.searcherManager = new SearcherManager(writer, null);
+        this.highlighter = UnifiedHighlighter.builderWithoutSearcher(analyzer)
+                .withMaxLength(Integer.MAX_VALUE - 1)
+                .withFormatter(new DefaultPassageFormatter("<b>", "</b>", "... ", true))
+                .build();
+    }
+
+    /**
+     * Adds the row, or replaces it if it is already indexed.
+     */
+    public void update(Entry entry) throws IOException {
+        rebuildLock.readLock().lock();
+        try {
+            writer.updateDocument(new Term(ID, String.valueOf(entry.id())), toDocument(entry));
+            searcherManager.maybeRefresh();
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces several rows.
+     */
+    public void updateAll(Iterable<Entry> entries) throws IOException {
+        rebuildLock.readLock().lock();
+        try {
+            for (Entry entry : entries) {
+                writer.updateDocument(new Term(ID, String.valueOf(entry.id())), toDocument(entry));
+            }
+            searcherManager.maybeRefresh();
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public void delete(long id) throws IOException {
+        rebuildLock.readLock().lock();
+        try {
+            writer.deleteDocuments(new Term(ID, String.valueOf(id)));
+            searcherManager.maybeRefresh();
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Makes the changes so far durable.
+     */
+    public void commit() throws IOException {
+        rebuildLock.readLock().lock();
+        try {
+            if (writer.hasUncommittedChanges()) writer.commit();
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index with the given rows. Searches keep seeing the previous index until
+     * the new one is committed. If reading the rows fails, the index stays as it was.
+     * @return Number of rows indexed
+     */
+    public long rebuild(Iterable<Entry> entries) throws IOException {
+        rebuildLock.writeLock().lock();
+        try {
+            // Rolling back a failed rebuild returns to this commit, so earlier updates are kept
+            writer.commit();
+            try {
+                writer.deleteAll();
+                long count = 0;
+                for (Entry entry : entries) {
+                    writer.addDocument(toDocument(entry));
+                    count++;
+                }
+                writer.commit();
+                searcherManager.maybeRefresh();
+                return count;
+            } catch (IOException | RuntimeException e) {
+                rollback();
+                throw e;
+            }
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    // Helper: Discard the uncommitted rebuild; rollback closes the writer, so open a new one
+    private void rollback() throws IOException {
+        writer.rollback();
+        searcherManager.close();
+        writer = openWriter();
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    private IndexWriter openWriter() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        return new IndexWriter(directory, config);
+    }
+
+    /**
+     * Number of rows currently visible to searches.
+     */
+    public int size() throws IOException {
+        SearcherManager manager = searcherManager;
+        IndexSearcher searcher = manager.acquire();
+        try {
+            return searcher.getIndexReader().numDocs();
+        } finally {
+            manager.release(searcher);
+        }
+    }
+
+    /**
+     * Returns one page of matches for the query.
+     */
+    public Hits search(String queryText, int offset, int limit) throws IOException {
+        Query query = parse(queryText);
+        if (query == null || limit <= 0) {
+            return new Hits(0, List.of());
+        }
+        SearcherManager manager = searcherManager;
+        IndexSearcher searcher = manager.acquire();
+        try {
+            // count() is answered from index statistics where possible instead of scoring every hit
+            int total = searcher.count(query);
+            if (offset >= total) {
+                return new Hits(total, List.of());
+            }
+            TopDocs top = searcher.search(query, Math.min(offset + limit, total));
+            StoredFields storedFields = searcher.storedFields();
+            List<Long> ids = new ArrayList<>(limit);
+            for (int i = offset; i < top.scoreDocs.length; i++) {
+                ids.add(Long.parseLong(storedFields.document(top.scoreDocs[i].doc).get(ID)));
+            }
+            return new Hits(total, ids);
+        } finally {
+            manager.release(searcher);
+        }
+    }
+
+    /**
+     * Best matching passages of the text, with matched words wrapped in &lt;b&gt; tags, or null if
+     * nothing in it matches. The text is HTML-escaped so the snippet can be rendered as-is.
+     */
+    public String highlight(String queryText, String text, int maxPassages) throws IOException {
+        Query query = parse(queryText);
+        if (query == null || text == null) {
+            return null;
+        }
+        Object snippet = highlighter.highlightWithoutSearcher(CONTENT, query, text, maxPassages);
+        return snippet == null ? null : snippet.toString().trim();
+    }
+
+    // Helper: Parse the simple query syntax over url and content; null if nothing searchable remains
+    private Query parse(String queryText) {
+        if (queryText == null || queryText.isBlank()) {
+            return null;
+        }
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(URL, 1.0f, CONTENT, 1.0f));
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        return parser.parse(queryText);
+    }
+
+    private static Document toDocument(Entry entry) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, String.valueOf(entry.id()), Field.Store.YES));
+        if (entry.url() != null) doc.add(new TextField(URL, entry.url(), Field.Store.NO));
+        if (entry.content() != null) doc.add(new TextField(CONTENT, entry.content(), Field.Store.NO));
+        return doc;
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        // Commits what is still pending
+        writer.close();
+        analyzer.close();
+    }
+}
@@ -0,0 +1,130 @@
+package com.aiextractor.extractor.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV, with the NULL convention of PostgreSQL's COPY ... (FORMAT csv): a null field
+ * is written empty and unquoted, an empty string as "". Fields are quoted only when needed.
+ */
+public final class Csv {
+    private Csv() {}
+
+    public static void writeRow(Writer out, List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) out.write(',');
+            writeField(out, fields.get(i));
+        }
+        out.write('\n');
+    }
+
+    private static void writeField(Writer out, String field) throws IOException {
+        if (field == null) return;
+        if (!needsQuotes(field)) {
+            out.write(field);
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < field.length(); i++) {
+            if (field.charAt(i) == '"') {
+                out.write(field, start, i + 1 - start);
+                out.write('"');
+                start = i + 1;
+            }
+        }
+        out.write(field, start, field.length() - start);
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String field) {
+        if (field.isEmpty()) return true;
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        // COPY reads an unquoted \. line as end of data
+        return field.equals("\\.");
+    }
+
+    /**
+     * Reads records one at a time, so a file of any size is parsed in constant memory (plus the
+     * largest record). Quoted fields may span lines; lines end with \n or \r\n.
+     */
+    public static class RecordReader {
+        private final Reader in;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private long line = 1;
+
+        public RecordReader(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * The next record's fields, or null at the end of the input.
+         * @throws IllegalArgumentException If the input is not valid CSV
+         */
+        public List<String> next() throws IOException {
+            int c = read();
+            if (c < 0) return null;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) throw new IllegalArgumentException("Unterminated quoted field before line " + line);
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') line++;
+                        field.append((char) c);
+                    }
+                } else if (c == ',' || c == '\n' || c < 0) {
+                    fields.add(field.isEmpty() && !wasQuoted ? null : field.toString());
+                    if (c != ',') {
+                        if (c == '\n') line++;
+                        return fields;
+                    }
+                    field.setLength(0);
+                    wasQuoted = false;
+                } else if (c == '"' && field.isEmpty() && !wasQuoted) {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') throw new IllegalArgumentException("Stray carriage return on line " + line);
+                    c = next;
+                    continue;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.aiextractor.extractor.utils;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of concurrent operations against any single host. A host's semaphore only
+ * exists while operations hold or wait for its permits, so the map stays as small as the set of
+ * hosts in use.
+ */
+public class HostConcurrencyLimiter {
+    // users counts holders and waiters; it only changes inside the map's compute functions
+    private static class Entry {
+        final Semaphore semaphore;
+        int users;
+
+        Entry(int permits) {
+            this.semaphore = new Semaphore(permits);
+        }
+    }
+
+    private final int permitsPerHost;
+    private final ConcurrentHashMap<String, Entry> hosts = new ConcurrentHashMap<>();
+
+    public HostConcurrencyLimiter(int permitsPerHost) {
+        this.permitsPerHost = permitsPerHost;
+    }
+
+    public boolean tryAcquire(String host) {
+        if (join(host).semaphore.tryAcquire()) return true;
+        leave(host);
+        return false;
+    }
+
+    public void acquire(String host) throws InterruptedException {
+        try {
+            join(host).semaphore.acquire();
+        } catch (InterruptedException e) {
+            leave(host);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits up to the timeout for a permit.
+     * @return false if none became free in time
+     */
+    public boolean tryAcquire(String host, long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            if (join(host).semaphore.tryAcquire(timeout, unit)) return true;
+        } catch (InterruptedException e) {
+            leave(host);
+            throw e;
+        }
+        leave(host);
+        return false;
+    }
+
+    public void release(String host) {
+        Entry entry = hosts.get(host);
+        if (entry == null) throw new IllegalStateException("No permit held for " + host);
+        entry.semaphore.release();
+        leave(host);
+    }
+
+    /**
+     * Operations currently holding a permit for the host.
+     */
+    public int inFlight(String host) {
+        Entry entry = hosts.get(host);
+        return entry == null ? 0 : permitsPerHost - entry.semaphore.availablePermits();
+    }
+
+    /**
+     * Hosts with operations holding or waiting for a permit.
+     */
+    public int trackedHosts() {
+        return hosts.size();
+    }
+
+    private Entry join(String host) {
+        return hosts.compute(host, (h, entry) -> {
+            Entry joined = entry == null ? new Entry(permitsPerHost) : entry;
+            joined.users++;
+            return joined;
+        });
+    }
+
+    // Helper: Drop the host's entry once its last holder or waiter is gone
+    private void leave(String host) {
+        hosts.computeIfPresent(host, (h, entry) -> --entry.users == 0 ? null : entry);
+    }
+
+    /**
+     * Lower-cased host of the URL, or the URL itself if it has none.
+     */
+    public static String hostOf(String url) {
+        try {
+            String host = URI.create(url.trim()).getHost();
+            return host == null ? url : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}
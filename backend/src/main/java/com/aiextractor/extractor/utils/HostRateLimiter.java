@@ -0,0 +1,70 @@
+package com.aiextractor.extractor.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces out operations against any single host: at most one start per interval. Callers
+ * reserve the next free slot and sleep until it, so a burst to one host is served in arrival
+ * order at the configured rate while other hosts are unaffected. Hosts whose next slot has
+ * passed are forgotten as the map grows; a new entry for them behaves the same.
+ */
+public class HostRateLimiter {
+    private static final int MIN_PURGE_SIZE = 1024;
+
+    private final long intervalNanos;
+    private final ConcurrentHashMap<String, Long> nextSlot = new ConcurrentHashMap<>();
+    private volatile int purgeAt = MIN_PURGE_SIZE;
+
+    /**
+     * @param perSecond Operations per second per host; 0 or less disables the limit
+     */
+    public HostRateLimiter(double perSecond) {
+        this.intervalNanos = perSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / perSecond) : 0;
+    }
+
+    /**
+     * Waits until the host's next slot.
+     */
+    public void acquire(String host) throws InterruptedException {
+        reserve(host, false, 0);
+    }
+
+    /**
+     * Waits until the host's next slot unless it comes after the deadline, a System.nanoTime value.
+     * @return false, without taking the slot, if it comes after the deadline
+     */
+    public boolean acquire(String host, long deadlineNanos) throws InterruptedException {
+        return reserve(host, true, deadlineNanos);
+    }
+
+    private boolean reserve(String host, boolean bounded, long deadlineNanos) throws InterruptedException {
+        if (intervalNanos == 0) return true;
+        long now = System.nanoTime();
+        long[] slot = new long[1];
+        boolean[] late = new boolean[1];
+        nextSlot.compute(host, (h, next) -> {
+            slot[0] = next == null ? now : Math.max(next, now);
+            late[0] = bounded && slot[0] - deadlineNanos > 0;
+            return late[0] ? next : slot[0] + intervalNanos;
+        });
+        if (late[0]) return false;
+        if (nextSlot.size() > purgeAt) purge(now);
+        long wait = slot[0] - now;
+        if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+        return true;
+    }
+
+    /**
+     * Hosts with a remembered next slot.
+     */
+    public int trackedHosts() {
+        return nextSlot.size();
+    }
+
+    // Helper: Forget hosts whose next slot has passed; an entry updated meanwhile no longer matches and stays
+    private void purge(long now) {
+        nextSlot.values().removeIf(next -> next - now <= 0);
+        purgeAt = Math.max(MIN_PURGE_SIZE, 2 * nextSlot.size());
+    }
+}
@@ -4,6 +4,8 @@ import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
+import java.util.Comparator;
+
 /**
  * Utility methods for working with JSoup to extract and clean HTML content.
  */
@@ -19,4 +21,35 @@ public class JsoupUtils {
             }
         }
     }
+
+    /**
+     * Original selector-based extraction, kept for comparison with {@link ContentDensityExtractor}.
+     * Removes nav, footer, header, aside, scripts, styles, forms, ads, etc., then tries <main>,
+     * <article>, or the largest <div> with text. Fallback to body.
+     */
+    public static String extractLargestBlockText(Document doc) {
+        removeElements(doc, "nav", "footer", "aside", "header", "form", "script", "style", "noscript", "ads", ".ads", "[role=advertisement]", "[aria-label=sidebar]", "[aria-label=footer]", "[aria-label=navigation]");
+
+        // Try <main>
+        Element main = doc.selectFirst("main");
+        if (main != null && main.text().length() > 200) {
+            return main.text().trim();
+        }
+        // Try <article>
+        Element article = doc.selectFirst("article");
+        if (article != null && article.text().length() > 200) {
+            return article.text().trim();
+        }
+        // Try largest <div> with text
+        Elements divs = doc.select("div");
+        Element largestDiv = divs.stream()
+                .max(Comparator.comparingInt(e -> e.text().length()))
+                .orElse(null);
+        if (largestDiv != null && largestDiv.text().length() > 200) {
+            return largestDiv.text().trim();
+        }
+        // Fallback: get body text
+        String text = doc.body() != null ? doc.body().text() : "";
+        return text.trim();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,448 @@
+package com.aiextractor.extractor.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Frequency-based extractive summarizer.
+ * The text is scanned once: sentences are cut, tokens are interned into int term ids and counted in
+ * primitive arrays, and stopwords are checked once per distinct term through a perfect hash table.
+ * Top sentences are chosen with a bounded heap, and the key points reuse the token ids of the
+ * chosen sentences instead of re-tokenizing the summary.
+ * <p>
+ * Output is identical to the original regex/HashMap implementation, including its tie-breaking:
+ * equally scored sentences keep the iteration order of a HashMap keyed by sentence.
+ */
+public class LocalSummarizer {
+    // Simple list of English stopwords
+    private static final String[] STOPWORDS = {
+            "the", "is", "in", "at", "of", "on", "and", "a", "to", "it", "for", "with", "as", "was", "were", "by", "an", "be", "this", "that", "from", "or", "are", "but", "not", "have", "has", "had", "they", "you", "we", "he", "she", "his", "her", "their", "our", "its", "which", "will", "would", "can", "could", "should", "may", "might", "do", "does", "did", "so", "if", "then", "than", "about", "into", "more", "other", "some", "any", "all", "no", "out", "up", "down", "over", "under", "again", "further", "once"
+    };
+    private static final StopwordTable STOPWORD_TABLE = new StopwordTable(STOPWORDS);
+
+    private static final int MIN_SENTENCE_LENGTH = 20;
+    private static final int MAX_KEY_POINT_LENGTH = 200;
+    private static final int MIN_TOKEN_LENGTH = 3;
+
+    /**
+     * Summarizes the text with its numSentences highest scoring sentences, grouped into paragraphs
+     * of three, and extracts up to seven key points from that summary.
+     * @return Map with keys: "summary" (String), "keyPoints" (List<String>)
+     */
+    public static Map<String, Object> summarize(String text, int numSentences) {
+        Analysis analysis = new Analysis(text);
+        if (analysis.sentenceCount == 0) {
+            return Map.of("summary", "", "keyPoints", List.of());
+        }
+        int[] top = analysis.topSentences(Math.max(numSentences, 10), false);
+        StringBuilder summaryBuilder = new StringBuilder();
+        for (int i = 0; i < top.length; i++) {
+            summaryBuilder.append(analysis.sentence(top[i])).append(" ");
+            if ((i + 1) % 3 == 0) summaryBuilder.append("\n\n");
+        }
+        String summary = summaryBuilder.toString().trim();
+        List<String> keyPoints = analysis.canReuseForSummary(top)
+                ? analysis.keyPointsOf(top, 7)
+                : keyPoints(summary, 7);
+        return Map.of("summary", summary, "keyPoints", keyPoints);
+    }
+
+    /**
+     * The numSentences highest scoring sentences of the text, in their original order, joined
+     * with spaces. Text without any scorable sentence is returned trimmed.
+     */
+    public static String condense(String text, int numSentences) {
+        Analysis analysis = new Analysis(text);
+        if (analysis.sentenceCount == 0) {
+            return text.trim();
+        }
+        int[] top = analysis.topSentences(numSentences, false);
+        Arrays.sort(top);
+        StringBuilder sb = new StringBuilder();
+        for (int s : top) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(analysis.sentence(s));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Extracts up to maxKeyPoints distinct, important sentences (between 20 and 200 characters)
+     * from the given summary.
+     */
+    public static List<String> keyPoints(String summary, int maxKeyPoints) {
+        Analysis analysis = new Analysis(summary);
+        int[] top = analysis.topSentences(maxKeyPoints, true);
+        List<String> keyPoints = new ArrayList<>(top.length);
+        for (int s : top) keyPoints.add(analysis.sentence(s));
+        return keyPoints;
+    }
+
+    /**
+     * Single pass over one text: sentence boundaries, token ids and term frequencies.
+     */
+    private static final class Analysis {
+        private final String text;
+        // Lower-cased text the tokens and term ids refer to
+        private final CharSequence lower;
+        private final StringBuilder lowerPieces;
+
+        // Term dictionary: open addressing over `lower`, terms identified by their first occurrence
+        private int[] table = new int[256];
+        private int[] termStart = new int[128];
+        private int[] termLength = new int[128];
+        private int[] termFreq = new int[128];
+        private boolean[] termStop = new boolean[128];
+        private int termCount;
+
+        // Token ids of all pieces, and for kept sentences the slice of tokens they own
+        private int[] tokens = new int[256];
+        private int tokenCount;
+        private int[] sentenceBegin = new int[32];
+        private int[] sentenceEnd = new int[32];
+        private int[] sentenceTokenBegin = new int[32];
+        private int[] sentenceTokenEnd = new int[32];
+        private String[] sentenceText = new String[32];
+        private int sentenceCount;
+
+        Analysis(String text) {
+            this.text = text;
+            String lowered = text.toLowerCase();
+            if (lowered.length() == text.length()) {
+                this.lower = lowered;
+                this.lowerPieces = null;
+            } else {
+                // A few characters change length when lower-cased, so offsets no longer line up:
+                // lower-case piece by piece instead, as the original per-sentence tokenizer did
+                this.lowerPieces = new StringBuilder(text.length() + 16);
+                this.lower = lowerPieces;
+            }
+            split();
+        }
+
+        String sentence(int s) {
+            String value = sentenceText[s];
+            if (value == null) {
+                value = text.substring(sentenceBegin[s], sentenceEnd[s]);
+                sentenceText[s] = value;
+            }
+            return value;
+        }
+
+        // Helper: Equivalent of text.split("(?<=[.!?])\\s+") followed by trim() and a length filter
+        private void split() {
+            int n = text.length();
+            int start = 0;
+            int i = 1;
+            while (i < n) {
+                if (isRegexSpace(text.charAt(i)) && isTerminal(text.charAt(i - 1))) {
+                    piece(start, i);
+                    int j = i + 1;
+                    while (j < n && isRegexSpace(text.charAt(j))) j++;
+                    start = j;
+                    i = j + 1;
+                } else {
+                    i++;
+                }
+            }
+            if (start < n) piece(start, n);
+        }
+
+        private void piece(int start, int end) {
+            int tokenBegin = tokenCount;
+            if (lowerPieces == null) {
+                tokenize(start, end);
+            } else {
+                int offset = lowerPieces.length();
+                lowerPieces.append(text.substring(start, end).toLowerCase());
+                tokenize(offset, lowerPieces.length());
+            }
+            int trimmedStart = start;
+            int trimmedEnd = end;
+            while (trimmedStart < trimmedEnd && text.charAt(trimmedStart) <= ' ') trimmedStart++;
+            while (trimmedEnd > trimmedStart && text.charAt(trimmedEnd - 1) <= ' ') trimmedEnd--;
+            if (trimmedEnd - trimmedStart > MIN_SENTENCE_LENGTH) {
+                if (sentenceCount == sentenceBegin.length) {
+                    int size = sentenceCount * 2;
+                    sentenceBegin = Arrays.copyOf(sentenceBegin, size);
+                    sentenceEnd = Arrays.copyOf(sentenceEnd, size);
+                    sentenceTokenBegin = Arrays.copyOf(sentenceTokenBegin, size);
+                    sentenceTokenEnd = Arrays.copyOf(sentenceTokenEnd, size);
+                    sentenceText = Arrays.copyOf(sentenceText, size);
+                }
+                sentenceBegin[sentenceCount] = trimmedStart;
+                sentenceEnd[sentenceCount] = trimmedEnd;
+                sentenceTokenBegin[sentenceCount] = tokenBegin;
+                sentenceTokenEnd[sentenceCount] = tokenCount;
+                sentenceCount++;
+            }
+        }
+
+        // Helper: Equivalent of split("\\W+") with a length filter, counting every token as it is found
+        private void tokenize(int start, int end) {
+            int i = start;
+            while (i < end) {
+                while (i < end && !isWordChar(lower.charAt(i))) i++;
+                int tokenStart = i;
+                while (i < end && isWordChar(lower.charAt(i))) i++;
+                if (i - tokenStart >= MIN_TOKEN_LENGTH) {
+                    int id = intern(tokenStart, i);
+                    if (!termStop[id]) termFreq[id]++;
+                    if (tokenCount == tokens.length) tokens = Arrays.copyOf(tokens, tokenCount * 2);
+                    tokens[tokenCount++] = id;
+                }
+            }
+        }
+
+        private int intern(int start, int end) {
+            int length = end - start;
+            int mask = table.length - 1;
+            int slot = hash(start, length) & mask;
+            while (table[slot] != 0) {
+                int id = table[slot] - 1;
+                if (termLength[id] == length && sameChars(termStart[id], start, length)) {
+                    return id;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int id = termCount++;
+            if (id == termStart.length) {
+                int size = id * 2;
+                termStart = Arrays.copyOf(termStart, size);
+                termLength = Arrays.copyOf(termLength, size);
+                termFreq = Arrays.copyOf(termFreq, size);
+                termStop = Arrays.copyOf(termStop, size);
+            }
+            termStart[id] = start;
+            termLength[id] = length;
+            termStop[id] = STOPWORD_TABLE.contains(lower, start, end);
+            table[slot] = id + 1;
+            if (termCount * 2 > table.length) rehash();
+            return id;
+        }
+
+        private int hash(int start, int length) {
+            int hash = 0;
+            for (int i = start; i < start + length; i++) hash = 31 * hash + lower.charAt(i);
+            return hash ^ (hash >>> 16);
+        }
+
+        private boolean sameChars(int a, int b, int length) {
+            for (int i = 0; i < length; i++) {
+                if (lower.charAt(a + i) != lower.charAt(b + i)) return false;
+            }
+            return true;
+        }
+
+        private void rehash() {
+            int[] newTable = new int[table.length * 2];
+            int mask = newTable.length - 1;
+            for (int id = 0; id < termCount; id++) {
+                int slot = hash(termStart[id], termLength[id]) & mask;
+                while (newTable[slot] != 0) slot = (slot + 1) & mask;
+                newTable[slot] = id + 1;
+            }
+            table = newTable;
+        }
+
+        // Helper: Sum of text-wide frequencies of the sentence's non-stopword tokens
+        private long score(int s, int[] freq) {
+            long score = 0;
+            for (int t = sentenceTokenBegin[s]; t < sentenceTokenEnd[s]; t++) {
+                int id = tokens[t];
+                if (!termStop[id]) score += freq[id];
+            }
+            return score;
+        }
+
+        /**
+         * Picks the limit best distinct sentences, best first. Ties are broken by the position the
+         * sentence would have in a HashMap iteration, which is what the original stable sort saw.
+         */
+        int[] topSentences(int limit, boolean keyPointFilter) {
+            Map<String, Integer> distinct = new HashMap<>();
+            for (int s = 0; s < sentenceCount; s++) {
+                distinct.putIfAbsent(sentence(s), s);
+            }
+            int[] candidates = new int[distinct.size()];
+            long[] scores = new long[sentenceCount];
+            int[] rank = new int[sentenceCount];
+            int count = 0;
+            int position = 0;
+            for (Iterator<Integer> it = distinct.values().iterator(); it.hasNext(); position++) {
+                int s = it.next();
+                if (keyPointFilter && sentenceEnd[s] - sentenceBegin[s] >= MAX_KEY_POINT_LENGTH) continue;
+                rank[s] = position;
+                scores[s] = score(s, termFreq);
+                candidates[count++] = s;
+            }
+            return selectTop(candidates, count, scores, rank, limit);
+        }
+
+        /**
+         * True if re-splitting the summary built from these sentences yields exactly these sentences,
+         * i.e. every sentence but the last ends with sentence punctuation.
+         */
+        boolean canReuseForSummary(int[] top) {
+            for (int i = 0; i < top.length - 1; i++) {
+                if (!isTerminal(text.charAt(sentenceEnd[top[i]] - 1))) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Key points of the summary made of the given sentences, computed from their token ids.
+         */
+        List<String> keyPointsOf(int[] summarySentences, int maxKeyPoints) {
+            int[] freq = new int[termCount];
+            for (int s : summarySentences) {
+                for (int t = sentenceTokenBegin[s]; t < sentenceTokenEnd[s]; t++) freq[tokens[t]]++;
+            }
+            Map<String, Integer> order = new HashMap<>();
+            for (int s : summarySentences) order.put(sentence(s), s);
+            long[] scores = new long[sentenceCount];
+            int[] rank = new int[sentenceCount];
+            int[] candidates = new int[summarySentences.length];
+            int count = 0;
+            int position = 0;
+            for (Iterator<Integer> it = order.values().iterator(); it.hasNext(); position++) {
+                int s = it.next();
+                if (sentenceEnd[s] - sentenceBegin[s] >= MAX_KEY_POINT_LENGTH) continue;
+                rank[s] = position;
+                scores[s] = score(s, freq);
+                candidates[count++] = s;
+            }
+            int[] top = selectTop(candidates, count, scores, rank, maxKeyPoints);
+            List<String> keyPoints = new ArrayList<>(top.length);
+            for (int s : top) keyPoints.add(sentence(s));
+            return keyPoints;
+        }
+    }
+
+    // Helper: Bounded min-heap of sentence indices; returns the best `limit` in descending order
+    private static int[] selectTop(int[] candidates, int count, long[] scores, int[] rank, int limit) {
+        int size = Math.min(limit, count);
+        if (size <= 0) return new int[0];
+        int[] heap = new int[size];
+        int heapSize = 0;
+        for (int c = 0; c < count; c++) {
+            int s = candidates[c];
+            if (heapSize < size) {
+                heap[heapSize] = s;
+                siftUp(heap, heapSize++, scores, rank);
+            } else if (better(s, heap[0], scores, rank)) {
+                heap[0] = s;
+                siftDown(heap, heapSize, scores, rank);
+            }
+        }
+        int[] result = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, scores, rank);
+        }
+        return result;
+    }
+
+    private static boolean better(int a, int b, long[] scores, int[] rank) {
+        return scores[a] != scores[b] ? scores[a] > scores[b] : rank[a] < rank[b];
+    }
+
+    private static void siftUp(int[] heap, int i, long[] scores, int[] rank) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(heap[parent], heap[i], scores, rank)) break;
+            int tmp = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = tmp;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, long[] scores, int[] rank) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int worst = left;
+            int right = left + 1;
+            if (right < size && better(heap[left], heap[right], scores, rank)) worst = right;
+            if (!better(heap[i], heap[worst], scores, rank)) break;
+            int tmp = heap[i];
+            heap[i] = heap[worst];
+            heap[worst] = tmp;
+            i = worst;
+        }
+    }
+
+    private static boolean isTerminal(char c) {
+        return c == '.' || c == '!' || c == '?';
+    }
+
+    // Matches \s without UNICODE_CHARACTER_CLASS
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // Matches \w without UNICODE_CHARACTER_CLASS
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /**
+     * Collision-free hash table over the stopwords, built once at class load by searching for a
+     * seed under which every word lands in its own slot. Lookups hash a slice of the token's
+     * source text and compare at most one candidate, without allocating.
+     */
+    static final class StopwordTable {
+        private final char[][] slots;
+        private final int seed;
+        private final int mask;
+
+        StopwordTable(String[] words) {
+            int size = Integer.highestOneBit(words.length * 4 - 1) << 1;
+            while (true) {
+                for (int seed = 1; seed < 10_000; seed++) {
+                    char[][] candidate = new char[size][];
+                    boolean perfect = true;
+                    for (String word : words) {
+                        int slot = hash(seed, word, 0, word.length()) & (size - 1);
+                        if (candidate[slot] != null) {
+                            perfect = false;
+                            break;
+                        }
+                        candidate[slot] = word.toCharArray();
+                    }
+                    if (perfect) {
+                        this.slots = candidate;
+                        this.seed = seed;
+                        this.mask = size - 1;
+                        return;
+                    }
+                }
+                size <<= 1;
+            }
+        }
+
+        boolean contains(CharSequence source, int start, int end) {
+            char[] word = slots[hash(seed, source, start, end) & mask];
+            if (word == null || word.length != end - start) return false;
+            for (int i = 0; i < word.length; i++) {
+                if (word[i] != source.charAt(start + i)) return false;
+            }
+            return true;
+        }
+
+        private static int hash(int seed, CharSequence source, int start, int end) {
+            int h = seed;
+            for (int i = start; i < end; i++) {
+                h = h * 0x01000193 ^ source.charAt(i);
+            }
+            return h ^ (h >>> 15);
+        }
+    }
+}
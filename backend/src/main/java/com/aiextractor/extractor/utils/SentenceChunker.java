@@ -0,0 +1,54 @@
+package com.aiextractor.extractor.utils;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits text into chunks of at most maxChars characters, ending each chunk at a sentence
+ * boundary where possible. Chunks are produced lazily, one per next() call.
+ */
+public class SentenceChunker implements Iterator<String> {
+    private final String text;
+    private final int maxChars;
+    private int position;
+    private String next;
+
+    public SentenceChunker(String text, int maxChars) {
+        if (maxChars < 1) throw new IllegalArgumentException("maxChars must be positive");
+        this.text = text;
+        this.maxChars = maxChars;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && position < text.length()) {
+            int end = chunkEnd(position);
+            String chunk = text.substring(position, end).trim();
+            position = end;
+            if (!chunk.isEmpty()) next = chunk;
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        String chunk = next;
+        next = null;
+        return chunk;
+    }
+
+    // Helper: End of the chunk starting at start: last sentence end that fits, else last space, else maxChars
+    private int chunkEnd(int start) {
+        int limit = start + maxChars;
+        if (limit >= text.length()) return text.length();
+        int lastSpace = -1;
+        for (int i = limit; i > start; i--) {
+            if (!Character.isWhitespace(text.charAt(i))) continue;
+            char before = text.charAt(i - 1);
+            if (before == '.' || before == '!' || before == '?') return i;
+            if (lastSpace < 0) lastSpace = i;
+        }
+        return lastSpace > 0 ? lastSpace : limit;
+    }
+}
@@ -0,0 +1,78 @@
+package com.aiextractor.extractor.utils;
+
+/**
+ * 64-bit SimHash fingerprints of text. Similar texts get fingerprints that differ in few bits:
+ * every overlapping three-word shingle votes on each bit, so a light edit only moves the votes
+ * of the shingles it touches. Case, punctuation and whitespace are ignored.
+ */
+public class SimHash {
+    private static final int SHINGLE_WORDS = 3;
+    // FNV-1a, for hashing each word as it is scanned
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Fingerprint of the text; 0 for text without words.
+     */
+    public static long fingerprint(String text) {
+        int[] votes = new int[64];
+        long[] window = new long[SHINGLE_WORDS];
+        int words = 0;
+        long word = FNV_OFFSET;
+        boolean inWord = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word = (word ^ Character.toLowerCase(c)) * FNV_PRIME;
+                inWord = true;
+            } else if (inWord) {
+                window[words % SHINGLE_WORDS] = word;
+                words++;
+                if (words >= SHINGLE_WORDS) vote(votes, shingle(window, words));
+                word = FNV_OFFSET;
+                inWord = false;
+            }
+        }
+        if (words > 0 && words < SHINGLE_WORDS) {
+            // Too short for a whole shingle: the words themselves are the features
+            for (int w = 0; w < words; w++) vote(votes, mix(window[w]));
+        }
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (votes[bit] > 0) fingerprint |= 1L << bit;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Share of equal bits between two fingerprints, from 0 to 1.
+     */
+    public static double similarity(long a, long b) {
+        return 1 - Long.bitCount(a ^ b) / 64.0;
+    }
+
+    // Helper: Order-sensitive hash of the last SHINGLE_WORDS words (window is a ring buffer ending at count)
+    private static long shingle(long[] window, int count) {
+        long h = 0;
+        for (int w = count - SHINGLE_WORDS; w < count; w++) {
+            h = h * 0x9E3779B97F4A7C15L + window[w % SHINGLE_WORDS];
+        }
+        return mix(h);
+    }
+
+    private static void vote(int[] votes, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            votes[bit] += (int) ((hash >>> bit) & 1) * 2 - 1;
+        }
+    }
+
+    // Helper: MurmurHash3 finalizer, so every input bit affects every output bit
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
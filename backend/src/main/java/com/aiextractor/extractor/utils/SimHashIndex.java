@@ -0,0 +1,134 @@
+package com.aiextractor.extractor.utils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe in-memory index of 64-bit SimHash fingerprints, answering "which document is
+ * within maxDistance differing bits of this fingerprint?" without comparing against every document.
+ * The fingerprint is cut into maxDistance + 1 blocks. Two fingerprints that differ in at most
+ * maxDistance bits agree exactly on at least one block, so each block gets a table from its
+ * value to the documents having it, and only documents sharing a block value are compared.
+ */
+public class SimHashIndex {
+    /**
+     * Closest indexed document and the number of bits its fingerprint differs in.
+     */
+    public record Match(long id, int distance) {}
+
+    private final int maxDistance;
+    private final int[] blockStart;
+    private final int[] blockWidth;
+    // Per block: block value -> slots of the documents with that value; element 0 is the slot count
+    private final Map<Long, int[]>[] tables;
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private long[] ids = new long[1024];
+    private long[] fingerprints = new long[1024];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    @SuppressWarnings("unchecked")
+    public SimHashIndex(int maxDistance) {
+        if (maxDistance < 0 || maxDistance > 31) throw new IllegalArgumentException("maxDistance must be between 0 and 31");
+        this.maxDistance = maxDistance;
+        int blocks = maxDistance + 1;
+        this.blockStart = new int[blocks];
+        this.blockWidth = new int[blocks];
+        for (int b = 0; b < blocks; b++) {
+            blockStart[b] = b * 64 / blocks;
+            blockWidth[b] = (b + 1) * 64 / blocks - blockStart[b];
+        }
+        this.tables = new Map[blocks];
+        for (int b = 0; b < blocks; b++) tables[b] = new HashMap<>();
+    }
+
+    public int maxDistance() {
+        return maxDistance;
+    }
+
+    public synchronized int size() {
+        return slotById.size();
+    }
+
+    /**
+     * Adds the document, replacing its previous fingerprint if it was already indexed.
+     */
+    public synchronized void put(long id, long fingerprint) {
+        remove(id);
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+        if (slot == ids.length) {
+            ids = Arrays.copyOf(ids, slot * 2);
+            fingerprints = Arrays.copyOf(fingerprints, slot * 2);
+        }
+        ids[slot] = id;
+        fingerprints[slot] = fingerprint;
+        slotById.put(id, slot);
+        for (int b = 0; b < tables.length; b++) {
+            tables[b].merge(block(fingerprint, b), new int[]{1, slot}, SimHashIndex::append);
+        }
+    }
+
+    public synchronized void remove(long id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) return;
+        long fingerprint = fingerprints[slot];
+        for (int b = 0; b < tables.length; b++) {
+            long key = block(fingerprint, b);
+            int[] postings = tables[b].get(key);
+            int count = postings[0];
+            for (int i = 1; i <= count; i++) {
+                if (postings[i] == slot) {
+                    postings[i] = postings[count];
+                    postings[0] = --count;
+                    break;
+                }
+            }
+            if (count == 0) tables[b].remove(key);
+        }
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * The indexed document closest to the fingerprint, or null if none is within maxDistance bits.
+     */
+    public synchronized Match nearest(long fingerprint) {
+        long bestId = 0;
+        int bestDistance = maxDistance + 1;
+        for (int b = 0; b < tables.length && bestDistance > 0; b++) {
+            int[] postings = tables[b].get(block(fingerprint, b));
+            if (postings == null) continue;
+            for (int i = 1; i <= postings[0]; i++) {
+                int slot = postings[i];
+                int distance = Long.bitCount(fingerprints[slot] ^ fingerprint);
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    bestId = ids[slot];
+                }
+            }
+        }
+        return bestDistance <= maxDistance ? new Match(bestId, bestDistance) : null;
+    }
+
+    public synchronized void clear() {
+        for (Map<Long, int[]> table : tables) table.clear();
+        slotById.clear();
+        freeCount = 0;
+        slotCount = 0;
+    }
+
+    private long block(long fingerprint, int b) {
+        return blockWidth[b] == 64 ? fingerprint : (fingerprint >>> blockStart[b]) & ((1L << blockWidth[b]) - 1);
+    }
+
+    // Helper: Add the slot in the incoming single-slot list to the existing postings, growing them as needed
+    private static int[] append(int[] postings, int[] single) {
+        int count = postings[0];
+        if (count + 1 == postings.length) postings = Arrays.copyOf(postings, postings.length * 2);
+        postings[count + 1] = single[1];
+        postings[0] = count + 1;
+        return postings;
+    }
+}
@@ -0,0 +1,55 @@
+package com.aiextractor.extractor.utils;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Normalizes URLs into cache/coalescing keys so that trivially different spellings of the same page
+ * (host case, default ports, fragments, tracking parameters, parameter order) map to one key.
+ */
+public class UrlNormalizer {
+    private static final List<String> TRACKING_PARAMS = List.of("fbclid", "gclid", "dclid", "msclkid", "mc_cid", "mc_eid", "igshid");
+
+    /**
+     * Returns the normalized form of the URL, or the trimmed input if it cannot be parsed.
+     */
+    public static String normalize(String url) {
+        try {
+            URI uri = new URI(url.trim());
+            String scheme = uri.getScheme() == null ? "http" : uri.getScheme().toLowerCase(Locale.ROOT);
+            String host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            if ((scheme.equals("http") && port == 80) || (scheme.equals("https") && port == 443)) {
+                port = -1;
+            }
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            StringBuilder sb = new StringBuilder(url.length());
+            sb.append(scheme).append("://").append(host);
+            if (port != -1) sb.append(':').append(port);
+            sb.append(path);
+            String query = normalizeQuery(uri.getRawQuery());
+            if (!query.isEmpty()) sb.append('?').append(query);
+            return sb.toString();
+        } catch (URISyntaxException e) {
+            return url.trim();
+        }
+    }
+
+    // Helper: Drop tracking parameters and sort the rest so parameter order does not matter
+    private static String normalizeQuery(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) return "";
+        List<String> params = new ArrayList<>();
+        for (String param : rawQuery.split("&")) {
+            if (param.isEmpty()) continue;
+            String name = param.split("=", 2)[0].toLowerCase(Locale.ROOT);
+            if (name.startsWith("utm_") || TRACKING_PARAMS.contains(name)) continue;
+            params.add(param);
+        }
+        Collections.sort(params);
+        return String.join("&", params);
+    }
+}
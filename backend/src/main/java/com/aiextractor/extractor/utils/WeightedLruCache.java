@@ -0,0 +1,70 @@
+package com.aiextractor.extractor.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe LRU cache bounded by the total weight of its values (usually an estimate in bytes)
+ * rather than by entry count.
+ */
+public class WeightedLruCache<K, V> {
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<>(64, 0.75f, true);
+    private final ToLongFunction<V> weigher;
+    private final long maxWeight;
+    private long totalWeight;
+    private long evictionCount;
+
+    public WeightedLruCache(long maxWeight, ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    public synchronized V get(K key) {
+        return map.get(key);
+    }
+
+    /**
+     * Stores the value and evicts least-recently-used entries until the cache fits its weight bound.
+     * Values heavier than the whole cache are not stored.
+     */
+    public synchronized void put(K key, V value) {
+        long weight = weigher.applyAsLong(value);
+        V previous = map.remove(key);
+        if (previous != null) {
+            totalWeight -= weigher.applyAsLong(previous);
+        }
+        if (weight > maxWeight) {
+            return;
+        }
+        map.put(key, value);
+        totalWeight += weight;
+        Iterator<Map.Entry<K, V>> it = map.entrySet().iterator();
+        while (totalWeight > maxWeight && it.hasNext()) {
+            Map.Entry<K, V> eldest = it.next();
+            totalWeight -= weigher.applyAsLong(eldest.getValue());
+            it.remove();
+            evictionCount++;
+        }
+    }
+
+    public synchronized void remove(K key) {
+        V previous = map.remove(key);
+        if (previous != null) {
+            totalWeight -= weigher.applyAsLong(previous);
+        }
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized long weight() {
+        return totalWeight;
+    }
+
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+}
@@ -0,0 +1,43 @@
+-- Schema as spring.jpa.hibernate.ddl-auto=update created it for the entities in models/.
+-- Databases that already have extracted_content, created by ddl-auto with this or an older release
+-- (an IDENTITY id and no content_hash, key_points or created_at), run it too: every statement only
+-- adds what is missing. The migrator then moves the sequence past their ids.
+create sequence if not exists extracted_content_seq start with 1 increment by 50;
+
+create table if not exists content_blob (
+    hash varchar(64) not null,
+    codec varchar(255),
+    raw_bytes integer,
+    preview varchar(500),
+    data bytea,
+    primary key (hash)
+);
+
+create table if not exists extracted_content (
+    id bigint not null,
+    url varchar(255),
+    content text,
+    content_hash varchar(64),
+    summary text,
+    key_points jsonb,
+    created_at timestamp(6) with time zone,
+    primary key (id)
+);
+
+alter table extracted_content add column if not exists content_hash varchar(64);
+alter table extracted_content add column if not exists key_points jsonb;
+alter table extracted_content add column if not exists created_at timestamp(6) with time zone;
+
+create table if not exists summary_cache (
+    content_hash varchar(64) not null,
+    summary text,
+    key_points jsonb,
+    created_at timestamp(6) with time zone,
+    primary key (content_hash)
+);
+
+create index if not exists extracted_content_url_created_at on extracted_content (url, created_at);
+
+-- Named as Hibernate named it, so later migrations can refer to it in every database; replaced if ddl-auto added it
+alter table extracted_content drop constraint if exists FKjjdldmwi5pvokxurm0j60fpp7;
+alter table extracted_content add constraint FKjjdldmwi5pvokxurm0j60fpp7 foreign key (content_hash) references content_blob;
@@ -0,0 +1,7 @@
+-- Recent-result reuse under extractor.single-flight.cluster looks rows up by the normalized URL that
+-- the cluster lock is taken on, so that every spelling of a URL finds the others' results. Rows
+-- stored before this have no url_key and are simply never reused.
+alter table extracted_content add column if not exists url_key varchar(512);
+
+drop index if exists extracted_content_url_created_at;
+create index if not exists extracted_content_url_key_created_at on extracted_content (url_key, created_at);
@@ -0,0 +1,199 @@
+package com.aiextractor.extractor.services;
+
+import com.aiextractor.extractor.models.ExtractedContent;
+import com.aiextractor.extractor.models.ExtractedContentRepository;
+import com.aiextractor.extractor.models.SummaryResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExtractionServiceTest {
+    private static final String URL = "https://example.com/article";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+    private final CountDownLatch running = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentRequestsShareOneRun() throws Exception {
+        SummaryResponse summary = new SummaryResponse("summary", List.of("point"));
+        ExtractionService service = service(Duration.ofSeconds(10), () -> summary);
+
+        Future<SummaryResponse> leader = callers.submit(() -> service.extractAndStore(URL));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        List<Future<SummaryResponse>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) followers.add(callers.submit(() -> service.extractAndStore(URL + "#section")));
+        awaitFollowers(3);
+        release.countDown();
+
+        assertSame(summary, leader.get(5, TimeUnit.SECONDS));
+        for (Future<SummaryResponse> follower : followers) assertSame(summary, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void leaderErrorFailsFollowersAndTheNextRequestRunsAgain() throws Exception {
+        ExtractionService service = service(Duration.ofSeconds(10), () -> {
+            throw new StackOverflowError("leader failed");
+        });
+
+        Future<SummaryResponse> leader = callers.submit(() -> service.extractAndStore(URL));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        Future<SummaryResponse> follower = callers.submit(() -> service.extractAndStore(URL));
+        awaitFollowers(1);
+        release.countDown();
+
+        for (Future<SummaryResponse> caller : List.of(leader, follower)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> caller.get(5, TimeUnit.SECONDS));
+            assertTrue(e.getCause() instanceof StackOverflowError, e.getCause().toString());
+        }
+        assertThrows(StackOverflowError.class, () -> service.extractAndStore(URL));
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void followersGiveUpAfterWaitTimeout() throws Exception {
+        ExtractionService service = service(Duration.ofMillis(100), () -> new SummaryResponse("summary", List.of()));
+
+        callers.submit(() -> service.extractAndStore(URL));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        ExtractionException e = assertThrows(ExtractionException.class, () -> service.extractAndStore(URL));
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, e.getStatus());
+    }
+
+    @Test
+    void clusterReusesARowStoredForAnotherSpellingOfTheUrl() throws Exception {
+        List<ExtractedContent> rows = new ArrayList<>();
+        ExtractionService first = clusterService(rows);
+        ExtractionService second = clusterService(rows);
+
+        SummaryResponse stored = first.extractAndStore("https://example.com/article?b=2&a=1&fbclid=x");
+        SummaryResponse reused = second.extractAndStore("https://EXAMPLE.com:443/article?a=1&b=2#comments");
+
+        assertEquals(1, runs.get());
+        assertEquals(1, rows.size());
+        assertEquals(stored.getSummary(), reused.getSummary());
+        assertEquals(1, registry.counter("extractor.single-flight.requests", "role", "reused").count());
+    }
+
+    // Service whose pipeline run blocks until release, then returns or throws what result gives
+    private ExtractionService service(Duration waitTimeout, Supplier<SummaryResponse> result) {
+        ExtractionService service = new ExtractionService() {
+            @Override
+            SummaryResponse runAndStore(String url) {
+                runs.incrementAndGet();
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return result.get();
+            }
+        };
+        ReflectionTestUtils.setField(service, "meterRegistry", registry);
+        ReflectionTestUtils.setField(service, "singleFlight", true);
+        ReflectionTestUtils.setField(service, "waitTimeout", waitTimeout);
+        service.registerMeters();
+        return service;
+    }
+
+    // Replica with cluster single flight over a shared table (rows); locks are always granted
+    private ExtractionService clusterService(List<ExtractedContent> rows) {
+        ExtractionService service = new ExtractionService() {
+            @Override
+            public Extraction extract(String url) {
+                runs.incrementAndGet();
+                ExtractedContent entity = new ExtractedContent();
+                entity.setUrl(url);
+                entity.setSummary("summary of " + url);
+                entity.setCreatedAt(Instant.now());
+                return new Extraction(entity, new SummaryResponse(entity.getSummary(), List.of()));
+            }
+        };
+        AdvisoryLocks locks = new AdvisoryLocks(null) {
+            @Override
+            public boolean isSupported() {
+                return true;
+            }
+
+            @Override
+            public Lock tryLock(String name, Duration timeout) {
+                return () -> {};
+            }
+        };
+        ExtractedContentWriter writer = new ExtractedContentWriter(null, null, null, null, null, registry,
+                false, 1, 1, Duration.ofMillis(200)) {
+            @Override
+            public void storeNow(ExtractedContent entity) {
+                synchronized (rows) {
+                    rows.add(entity);
+                }
+            }
+        };
+        ReflectionTestUtils.setField(service, "meterRegistry", registry);
+        ReflectionTestUtils.setField(service, "singleFlight", true);
+        ReflectionTestUtils.setField(service, "clusterSingleFlight", true);
+        ReflectionTestUtils.setField(service, "advisoryLocks", locks);
+        ReflectionTestUtils.setField(service, "extractedContentRepository", repository(rows));
+        ReflectionTestUtils.setField(service, "extractedContentWriter", writer);
+        ReflectionTestUtils.setField(service, "lockTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(service, "reuseWindow", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(service, "waitTimeout", Duration.ofSeconds(10));
+        service.registerMeters();
+        return service;
+    }
+
+    // Repository answering only the reuse lookup, from rows
+    private static ExtractedContentRepository repository(List<ExtractedContent> rows) {
+        return (ExtractedContentRepository) Proxy.newProxyInstance(ExtractedContentRepository.class.getClassLoader(),
+                new Class<?>[] {ExtractedContentRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findFirstByUrlKeyAndCreatedAtAfterOrderByCreatedAtDesc")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    synchronized (rows) {
+                        return rows.stream()
+                                .filter(row -> row.getUrlKey().equals(args[0]) && row.getCreatedAt().isAfter((Instant) args[1]))
+                                .max(Comparator.comparing(ExtractedContent::getCreatedAt));
+                    }
+                });
+    }
+
+    private void awaitFollowers(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.counter("extractor.single-flight.requests", "role", "follower").count() < count) {
+            assertTrue(System.nanoTime() < deadline, "followers did not arrive");
+            Thread.sleep(5);
+        }
+    }
+}
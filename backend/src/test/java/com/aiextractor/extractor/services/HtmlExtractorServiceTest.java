@@ -0,0 +1,126 @@
+package com.aiextractor.extractor.services;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HtmlExtractorServiceTest {
+    private static final String ARTICLE = "<p>" + "Le café naïf du marché ouvre tôt le matin. ".repeat(10) + "</p>";
+    private static final String LONG_PAGE = "<html><body><nav><a href=\"/\">Site navigation</a></nav>"
+            + "<p>Paragraph of the article body, long enough to count as content.</p>".repeat(3000)
+            + "<p>End of the article</p></body></html>";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private PageFetcher fetcher;
+
+    @AfterEach
+    void stop() throws IOException {
+        if (fetcher != null) fetcher.close();
+        if (server != null) server.stop(0);
+    }
+
+    @Test
+    void streamingDetectsTheCharsetAsJsoupDoes() throws Exception {
+        startStub();
+        HtmlExtractorService dom = service(false, 100_000, 1 << 20);
+        HtmlExtractorService streaming = service(true, 100_000, 1 << 20);
+
+        for (String path : new String[] {"/meta-charset", "/http-equiv", "/bom"}) {
+            String text = streaming.extractMainContent(url(path));
+            assertTrue(text.contains("Le café naïf du marché"), path + ": " + text);
+            assertEquals(dom.extractMainContent(url(path)), text, path);
+        }
+    }
+
+    @Test
+    void streamingDropsBoilerplateAndStopsReadingAtMaxTextLength() throws Exception {
+        startStub();
+        HtmlExtractorService service = service(true, 2_000, 1 << 20);
+
+        String text = service.extractMainContent(url("/long"));
+
+        assertTrue(text.startsWith("Paragraph of the article body"), text);
+        assertFalse(text.contains("Site navigation"));
+        assertTrue(text.length() <= 2_000);
+        assertTrue(pageBytesRead() < LONG_PAGE.length() / 2, "read " + pageBytesRead() + " bytes");
+    }
+
+    @Test
+    void streamingStopsAtTheBodyCap() throws Exception {
+        startStub();
+        HtmlExtractorService service = service(true, 1_000_000, 8192);
+
+        String text = service.extractMainContent(url("/long"));
+
+        assertTrue(text.startsWith("Paragraph of the article body"), text);
+        assertFalse(text.contains("End of the article"));
+        assertEquals(8192, pageBytesRead());
+    }
+
+    private HtmlExtractorService service(boolean streaming, int maxTextLength, int maxBodyBytes) {
+        if (fetcher == null) {
+            fetcher = new PageFetcher(registry, Duration.ofSeconds(2), Duration.ofSeconds(5), Duration.ofSeconds(10),
+                    16, 4, 0, Duration.ofMinutes(1), maxBodyBytes);
+        }
+        HtmlExtractorService service = new HtmlExtractorService();
+        ReflectionTestUtils.setField(service, "pageCache", new PageCache(false, 1 << 20, Duration.ofMinutes(1), registry));
+        ReflectionTestUtils.setField(service, "pageFetcher", fetcher);
+        ReflectionTestUtils.setField(service, "meterRegistry", registry);
+        ReflectionTestUtils.setField(service, "engine", "density");
+        ReflectionTestUtils.setField(service, "streaming", streaming);
+        ReflectionTestUtils.setField(service, "maxTextLength", maxTextLength);
+        return service;
+    }
+
+    private long pageBytesRead() {
+        return (long) registry.get("extractor.page.size").summary().max();
+    }
+
+    // Pages served with "text/html" and no charset parameter, so only the body tells the charset
+    private void startStub() throws IOException {
+        Charset latin1 = Charset.forName("windows-1252");
+        ByteArrayOutputStream bom = new ByteArrayOutputStream();
+        bom.write(new byte[] {(byte) 0xFF, (byte) 0xFE});
+        bom.write(("<html><body>" + ARTICLE + "</body></html>").getBytes(StandardCharsets.UTF_16LE));
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        serve("/meta-charset", ("<html><head><meta charset=\"windows-1252\"></head><body>" + ARTICLE + "</body></html>").getBytes(latin1));
+        serve("/http-equiv", ("<html><head><meta http-equiv=\"Content-Type\" content=\"text/html; charset=ISO-8859-1\"></head><body>"
+                + ARTICLE + "</body></html>").getBytes(StandardCharsets.ISO_8859_1));
+        serve("/bom", bom.toByteArray());
+        serve("/long", LONG_PAGE.getBytes(StandardCharsets.UTF_8));
+        server.start();
+    }
+
+    private void serve(String path, byte[] body) {
+        server.createContext(path, exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/html");
+            exchange.sendResponseHeaders(200, body.length);
+            try {
+                exchange.getResponseBody().write(body);
+            } catch (IOException e) {
+                // Client stopped reading early
+            }
+            exchange.close();
+        });
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+}
@@ -0,0 +1,126 @@
+package com.aiextractor.extractor.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HuggingFaceClientTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private HttpServer server;
+    private final List<JsonNode> requests = new ArrayList<>();
+
+    @AfterEach
+    void stop() {
+        if (server != null) server.stop(0);
+    }
+
+    @Test
+    void sendsAllChunksInOneRequest() throws Exception {
+        HuggingFaceClient client = startStub(true);
+
+        List<String> summaries = client.summarize(List.of("first chunk", "second chunk", "third chunk"), "key");
+
+        assertEquals(List.of("summary of first chunk", "summary of second chunk", "summary of third chunk"), summaries);
+        assertEquals(1, requests.size());
+        assertEquals(3, requests.get(0).get("inputs").size());
+    }
+
+    @Test
+    void fallsBackToConcurrentSingleRequestsWhenArraysAreRejected() throws Exception {
+        HuggingFaceClient client = startStub(false);
+
+        assertEquals(List.of("summary of a", "summary of b"), client.summarize(List.of("a", "b"), "key"));
+        assertEquals(List.of("summary of c", "summary of d"), client.summarize(List.of("c", "d"), "key"));
+
+        // One rejected array request, then single-input requests only
+        assertEquals(5, requests.size());
+        assertEquals(1, requests.stream().filter(r -> r.get("inputs").isArray()).count());
+    }
+
+    @Test
+    void keepsBatchingWhenOneInputIsRejected() throws Exception {
+        HuggingFaceClient client = startStub(true, "too long");
+
+        assertEquals(Arrays.asList("summary of a", null), client.summarize(List.of("a", "too long"), "key"));
+        assertEquals(List.of("summary of c", "summary of d"), client.summarize(List.of("c", "d"), "key"));
+
+        // The rejected array, its inputs one by one, then an array again
+        assertEquals(4, requests.size());
+        assertEquals(2, requests.stream().filter(r -> r.get("inputs").isArray()).count());
+    }
+
+    @Test
+    void parsesSummariesAndErrors() throws IOException {
+        assertEquals(List.of("one", "two"), parse("[{\"summary_text\":\"one\"},{\"summary_text\":\"two\"}]"));
+        assertEquals(List.of("with \"quotes\" and caf\u00e9"), parse("[{\"summary_text\":\"with \\\"quotes\\\" and caf\\u00e9\",\"meta\":{\"summary_text\":\"x\"}}]"));
+        assertEquals(Arrays.asList((String) null), parse("{\"error\":\"Model is loading\",\"estimated_time\":20.0}"));
+    }
+
+    private static List<String> parse(String json) throws IOException {
+        return HuggingFaceClient.parseSummaries(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Stub of the inference endpoint; summaries are "summary of <input>"
+    private HuggingFaceClient startStub(boolean acceptsArrays) throws IOException {
+        return startStub(acceptsArrays, null);
+    }
+
+    // rejectedInput fails with 400 on its own and in any array containing it
+    private HuggingFaceClient startStub(boolean acceptsArrays, String rejectedInput) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/models/test-model", exchange -> {
+            JsonNode body = MAPPER.readTree(exchange.getRequestBody());
+            synchronized (requests) {
+                requests.add(body);
+            }
+            JsonNode inputs = body.get("inputs");
+            if (inputs.isArray() && !acceptsArrays) {
+                respond(exchange, 400, "{\"error\":\"inputs must be a string\"}");
+                return;
+            }
+            if (rejectedInput != null && inputs.toString().contains(MAPPER.writeValueAsString(rejectedInput))) {
+                respond(exchange, 400, "{\"error\":\"input is too long\"}");
+                return;
+            }
+            StringBuilder json = new StringBuilder("[");
+            for (JsonNode input : inputs.isArray() ? inputs : MAPPER.createArrayNode().add(inputs)) {
+                if (json.length() > 1) json.append(',');
+                json.append(MAPPER.writeValueAsString(MAPPER.createObjectNode().put("summary_text", "summary of " + input.asText())));
+            }
+            respond(exchange, 200, json.append(']').toString());
+        });
+        server.start();
+        return new HuggingFaceClient("http://127.0.0.1:" + server.getAddress().getPort() + "/", "test-model", true, Duration.ofSeconds(5), guard());
+    }
+
+    static RemoteCallGuard guard() {
+        return new RemoteCallGuard(new SimpleMeterRegistry(), 20, 5, 0.5, Duration.ofSeconds(30), 2,
+                4, 8, Duration.ofSeconds(10), false, Duration.ofSeconds(3));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,84 @@
+package com.aiextractor.extractor.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MapReduceSummarizerTest {
+    private static final String SENTENCE = "The regional water authority reported steady progress on the pipe replacement programme. ";
+
+    private MapReduceSummarizer summarizer;
+
+    @AfterEach
+    void stop() {
+        if (summarizer != null) summarizer.shutdown();
+    }
+
+    @Test
+    void reducesWholeDocumentToTargetLength() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        // Model stub: every chunk summarizes to its first sentence
+        HuggingFaceClient client = new StubClient(inputs -> {
+            requests.incrementAndGet();
+            List<String> out = new ArrayList<>();
+            for (String input : inputs) out.add(input.substring(0, input.indexOf('.') + 1));
+            return out;
+        });
+        summarizer = new MapReduceSummarizer(client, 500, 300, 2, 2, Duration.ofSeconds(10), 4);
+
+        MapReduceSummarizer.Result result = summarizer.summarize(SENTENCE.repeat(400), "key");
+
+        assertTrue(result.summary().length() <= 300, result.summary());
+        assertEquals(0, result.localChunks());
+        assertTrue(result.modelChunks() > 80, "every chunk of the document is summarized: " + result.modelChunks());
+        assertTrue(requests.get() > 1);
+    }
+
+    @Test
+    void condensesUnfinishedChunksLocallyWhenBudgetRunsOut() throws Exception {
+        HuggingFaceClient client = new StubClient(inputs -> {
+            Thread.sleep(5_000);
+            return inputs;
+        });
+        summarizer = new MapReduceSummarizer(client, 500, 100_000, 2, 2, Duration.ofMillis(200), 4);
+
+        long start = System.nanoTime();
+        MapReduceSummarizer.Result result = summarizer.summarize(SENTENCE.repeat(50), "key");
+
+        assertTrue(System.nanoTime() - start < 2_000_000_000L, "returns within the budget");
+        assertEquals(0, result.modelChunks());
+        assertTrue(result.localChunks() > 0);
+        assertTrue(result.summary().startsWith("The regional water authority"), result.summary());
+    }
+
+    interface Model {
+        List<String> summarize(List<String> inputs) throws Exception;
+    }
+
+    private static class StubClient extends HuggingFaceClient {
+        private final Model model;
+
+        StubClient(Model model) {
+            super("http://localhost", "stub", true, Duration.ofSeconds(1), HuggingFaceClientTest.guard());
+            this.model = model;
+        }
+
+        @Override
+        public List<String> summarize(List<String> inputs, String apiKey, long deadlineNanos) throws InterruptedException {
+            try {
+                return model.summarize(inputs);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.aiextractor.extractor.services;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageFetcherTest {
+    private static final String PAGE = "<html><body><p>" + "Hello from the stub. ".repeat(200) + "</p></body></html>";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private PageFetcher fetcher;
+
+    @AfterEach
+    void stop() throws IOException {
+        if (fetcher != null) fetcher.close();
+        if (server != null) server.stop(0);
+    }
+
+    @Test
+    void decodesGzipAndReusesTheConnection() throws Exception {
+        startStub(new AtomicInteger(), new AtomicInteger(), 0);
+
+        for (int i = 0; i < 3; i++) {
+            try (PageFetcher.Response response = fetcher.fetch(url(), Map.of())) {
+                assertEquals(200, response.statusCode());
+                assertEquals("UTF-8", response.charset());
+                assertEquals(PAGE, new String(response.body().readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        assertEquals(3, registry.counter("extractor.fetch.requests").count());
+        assertEquals(1, registry.counter("extractor.fetch.connections.opened").count());
+    }
+
+    @Test
+    void capsConcurrentRequestsPerHost() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        startStub(active, peak, 100);
+
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                results.add(callers.submit(() -> {
+                    try (PageFetcher.Response response = fetcher.fetch(url(), Map.of())) {
+                        response.body().readAllBytes();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) result.get();
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertTrue(peak.get() <= 2, "peak concurrency " + peak.get());
+        assertTrue(registry.timer("extractor.fetch.host.wait").max(TimeUnit.MILLISECONDS) >= 50);
+    }
+
+    @Test
+    void truncatesTheBodyAtMaxBodyBytes() throws Exception {
+        startStub(new AtomicInteger(), new AtomicInteger(), 0);
+        fetcher.close();
+        fetcher = fetcher(Duration.ofSeconds(10), 2, 100);
+
+        try (PageFetcher.Response response = fetcher.fetch(url(), Map.of())) {
+            assertEquals(PAGE.substring(0, 100), new String(response.body().readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void totalTimeoutCoversTheBodyRead() throws Exception {
+        startStub(new AtomicInteger(), new AtomicInteger(), 0);
+        fetcher.close();
+        fetcher = fetcher(Duration.ofMillis(300), 2, 1 << 20);
+
+        long start = System.nanoTime();
+        try (PageFetcher.Response response = fetcher.fetch(stalledUrl(), Map.of())) {
+            assertEquals(200, response.statusCode());
+            assertThrows(InterruptedIOException.class, () -> response.body().readAllBytes());
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void totalTimeoutCoversTheHostWait() throws Exception {
+        startStub(new AtomicInteger(), new AtomicInteger(), 0);
+        fetcher.close();
+        fetcher = fetcher(Duration.ofMillis(300), 1, 1 << 20);
+
+        try (PageFetcher.Response held = fetcher.fetch(url(), Map.of())) {
+            long start = System.nanoTime();
+            assertThrows(InterruptedIOException.class, () -> fetcher.fetch(url(), Map.of()));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+            assertEquals(200, held.statusCode());
+        }
+    }
+
+    // Stub page server; responses are gzip-encoded and take delayMillis each
+    private void startStub(AtomicInteger active, AtomicInteger peak, long delayMillis) throws IOException {
+        byte[] gzipped = gzip(PAGE.getBytes(StandardCharsets.UTF_8));
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/page", exchange -> {
+            peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, gzipped.length);
+            exchange.getResponseBody().write(gzipped);
+            active.decrementAndGet();
+            exchange.close();
+        });
+        // Sends the headers and the start of the body, then stalls for longer than the tests' timeouts
+        server.createContext("/stalled", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=UTF-8");
+            exchange.sendResponseHeaders(200, 0);
+            exchange.getResponseBody().write("<html><body>".getBytes(StandardCharsets.UTF_8));
+            exchange.getResponseBody().flush();
+            try {
+                Thread.sleep(3000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        fetcher = fetcher(Duration.ofSeconds(10), 2, 1 << 20);
+    }
+
+    private PageFetcher fetcher(Duration totalTimeout, int perHostConcurrency, int maxBodyBytes) {
+        return new PageFetcher(registry, Duration.ofSeconds(2), Duration.ofSeconds(5), totalTimeout,
+                16, perHostConcurrency, 0, Duration.ofMinutes(1), maxBodyBytes);
+    }
+
+    private String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/page";
+    }
+
+    private String stalledUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/stalled";
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+}
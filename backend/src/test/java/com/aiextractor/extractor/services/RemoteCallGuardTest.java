@@ -0,0 +1,69 @@
+package com.aiextractor.extractor.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RemoteCallGuardTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void fastFailureStartsTheHedgeAtOnce() throws Exception {
+        RemoteCallGuard guard = guard(Duration.ofSeconds(3));
+        Supplier<CompletableFuture<Integer>> call = attempts(
+                () -> CompletableFuture.failedFuture(new ConnectException("Connection refused")),
+                () -> CompletableFuture.completedFuture(200));
+
+        long start = System.nanoTime();
+        assertEquals(200, guard.call(deadline(), call, status -> status < 500).get(5, TimeUnit.SECONDS));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "waited for hedging.delay");
+        assertEquals(1, registry.counter("extractor.hf.hedges").count());
+    }
+
+    @Test
+    void failedResponseDoesNotBeatASlowerSuccess() throws Exception {
+        RemoteCallGuard guard = guard(Duration.ofMillis(50));
+        Supplier<CompletableFuture<Integer>> call = attempts(
+                () -> CompletableFuture.supplyAsync(() -> 200, CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS)),
+                () -> CompletableFuture.completedFuture(503));
+
+        assertEquals(200, guard.call(deadline(), call, status -> status < 500).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void lastResponseIsTheResultWhenNoAttemptSucceeds() throws Exception {
+        RemoteCallGuard guard = guard(Duration.ofSeconds(3));
+        Supplier<CompletableFuture<Integer>> call = attempts(
+                () -> CompletableFuture.completedFuture(503),
+                () -> CompletableFuture.failedFuture(new ConnectException("Connection refused")));
+
+        assertEquals(503, guard.call(deadline(), call, status -> status < 500).get(5, TimeUnit.SECONDS));
+    }
+
+    private RemoteCallGuard guard(Duration hedgeDelay) {
+        return new RemoteCallGuard(registry, 20, 5, 0.5, Duration.ofSeconds(30), 2,
+                4, 8, Duration.ofSeconds(10), true, hedgeDelay);
+    }
+
+    // Call whose nth invocation returns the nth attempt's future
+    @SafeVarargs
+    private static Supplier<CompletableFuture<Integer>> attempts(Supplier<CompletableFuture<Integer>>... attempts) {
+        AtomicInteger calls = new AtomicInteger();
+        return () -> List.of(attempts).get(calls.getAndIncrement()).get();
+    }
+
+    private static long deadline() {
+        return System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    }
+}
@@ -0,0 +1,59 @@
+package com.aiextractor.extractor.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> transitions = new ArrayList<>();
+    private final CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, 1_000, 2, clock::get,
+            (from, to) -> transitions.add(from + "->" + to));
+
+    @Test
+    void opensAtFailureRateAndRejectsUntilOpenDurationPasses() {
+        call(true);
+        call(true);
+        call(false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        call(false);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        clock.addAndGet(999);
+        assertFalse(breaker.isCallPermitted());
+        clock.addAndGet(1);
+        assertTrue(breaker.isCallPermitted());
+    }
+
+    @Test
+    void halfOpenTrialsCloseOrReopen() {
+        for (int i = 0; i < 4; i++) call(false);
+        clock.addAndGet(1_000);
+
+        // Only halfOpenCalls trials at a time; one failure re-opens
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        clock.addAndGet(1_000);
+        call(true);
+        call(true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    private void call(boolean success) {
+        assertTrue(breaker.tryAcquire());
+        if (success) breaker.onSuccess(); else breaker.onFailure();
+    }
+}
@@ -0,0 +1,42 @@
+package com.aiextractor.extractor.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentCodecTest {
+
+    @Test
+    void roundTripsTextAndShrinksProse() {
+        String text = "Reservoir levels fell again this summer — the third year running. ".repeat(200) + "Ünïcødé ✓";
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+
+        byte[] data = ContentCodec.compress(raw);
+
+        assertTrue(data.length < raw.length / 4, "compressed to " + data.length + " of " + raw.length);
+        assertEquals(text, ContentCodec.decompress(data, raw.length));
+    }
+
+    @Test
+    void roundTripsIncompressibleAndEmptyInput() {
+        byte[] noise = new byte[100_000];
+        new Random(1).nextBytes(noise);
+        String text = new String(noise, StandardCharsets.ISO_8859_1);
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(text, ContentCodec.decompress(ContentCodec.compress(raw), raw.length));
+        assertEquals("", ContentCodec.decompress(ContentCodec.compress(new byte[0]), 0));
+    }
+
+    @Test
+    void hashIdentifiesContent() {
+        assertEquals(64, ContentCodec.hash("a").length());
+        assertEquals(ContentCodec.hash("same text"), ContentCodec.hash("same text"));
+        assertNotEquals(ContentCodec.hash("same text"), ContentCodec.hash("same text."));
+    }
+}
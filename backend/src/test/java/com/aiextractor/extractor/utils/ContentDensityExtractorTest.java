@@ -0,0 +1,52 @@
+package com.aiextractor.extractor.utils;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentDensityExtractorTest {
+
+    private static final String PARAGRAPH = "<p>Researchers measured how the city water network responds to heavy rain and found that older pipes fail first. "
+            + "The study compares ten years of data and recommends targeted replacement programmes.</p>";
+
+    @Test
+    void prefersContentBlockOverLinkHeavyWrapper() {
+        String related = "<a href='/1'>Related story one</a> ".repeat(40);
+        String html = "<html><body><div id='wrapper'><div id='story'>" + PARAGRAPH.repeat(4) + "</div>"
+                + "<div>" + related + "</div></div></body></html>";
+
+        String text = ContentDensityExtractor.extract(Jsoup.parse(html));
+
+        assertTrue(text.startsWith("Researchers measured"));
+        assertFalse(text.contains("Related story"));
+    }
+
+    @Test
+    void removesBoilerplateInTheSameWalk() {
+        String html = "<html><body><nav>Home About</nav><article>" + PARAGRAPH.repeat(3)
+                + "<div class='ads'>Buy now</div><script>track()</script></article><footer>Copyright</footer></body></html>";
+
+        String text = ContentDensityExtractor.extract(Jsoup.parse(html));
+
+        assertFalse(text.contains("Buy now"));
+        assertFalse(text.contains("track()"));
+        assertFalse(text.contains("Copyright"));
+    }
+
+    @Test
+    void fallsBackToBodyForShortPages() {
+        String html = "<html><body><nav>Menu</nav><div>Short page.</div></body></html>";
+
+        assertEquals("Short page.", ContentDensityExtractor.extract(Jsoup.parse(html)));
+    }
+
+    @Test
+    void matchesLegacyEngineOnSimpleArticle() {
+        String html = "<html><body><header>Site</header><article>" + PARAGRAPH.repeat(3) + "</article></body></html>";
+
+        assertEquals(JsoupUtils.extractLargestBlockText(Jsoup.parse(html)), ContentDensityExtractor.extract(Jsoup.parse(html)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.aiextractor.extractor.utils;
+
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentSearchIndexTest {
+
+    @Test
+    void ranksAndPagesMatches() throws IOException {
+        try (ContentSearchIndex index = new ContentSearchIndex(new ByteBuffersDirectory())) {
+            index.rebuild(List.of(
+                    new ContentSearchIndex.Entry(1, "https://example.com/a", "Rain fell on the city. The water network held."),
+                    new ContentSearchIndex.Entry(2, "https://example.com/b", "Water, water everywhere: the water network and water pipes."),
+                    new ContentSearchIndex.Entry(3, "https://example.com/c", "Nothing relevant here at all.")));
+
+            ContentSearchIndex.Hits hits = index.search("water network", 0, 10);
+            assertEquals(2, hits.total());
+            assertEquals(List.of(2L, 1L), hits.ids());
+
+            ContentSearchIndex.Hits second = index.search("water network", 1, 1);
+            assertEquals(2, second.total());
+            assertEquals(List.of(1L), second.ids());
+        }
+    }
+
+    @Test
+    void updatesAndDeletesIncrementally() throws IOException {
+        try (ContentSearchIndex index = new ContentSearchIndex(new ByteBuffersDirectory())) {
+            index.update(new ContentSearchIndex.Entry(1, "https://example.com/a", "Solar energy policy report."));
+            index.update(new ContentSearchIndex.Entry(1, "https://example.com/a", "Wind energy policy report."));
+            assertEquals(0, index.search("solar", 0, 10).total());
+            assertEquals(List.of(1L), index.search("wind", 0, 10).ids());
+
+            index.delete(1);
+            assertEquals(0, index.search("wind", 0, 10).total());
+            assertEquals(0, index.size());
+        }
+    }
+
+    @Test
+    void highlightsMatchingPassagesWithEscapedText() throws IOException {
+        try (ContentSearchIndex index = new ContentSearchIndex(new ByteBuffersDirectory())) {
+            String snippet = index.highlight("pipes", "Old <pipes> fail first. Something else.", 1);
+            assertTrue(snippet.contains("&lt;<b>pipes</b>&gt;"), snippet);
+            assertNull(index.highlight("   ", "Old pipes", 1));
+        }
+    }
+
+    @Test
+    void failedRebuildLeavesTheIndexAsItWas() throws IOException {
+        try (ContentSearchIndex index = new ContentSearchIndex(new ByteBuffersDirectory())) {
+            index.update(new ContentSearchIndex.Entry(1, "https://example.com/a", "Solar energy policy report."));
+            index.update(new ContentSearchIndex.Entry(2, "https://example.com/b", "Wind energy policy report."));
+            // The rows fail partway through, as a database error while paging would
+            Iterable<ContentSearchIndex.Entry> failing = () -> new Iterator<>() {
+                private int returned;
+
+                @Override
+                public boolean hasNext() {
+                    return true;
+                }
+
+                @Override
+                public ContentSearchIndex.Entry next() {
+                    if (returned++ == 1) throw new IllegalStateException("connection lost");
+                    return new ContentSearchIndex.Entry(3, "https://example.com/c", "Tidal energy.");
+                }
+            };
+            assertThrows(IllegalStateException.class, () -> index.rebuild(failing));
+            assertEquals(2, index.size());
+
+            index.update(new ContentSearchIndex.Entry(4, "https://example.com/d", "Hydro energy."));
+            index.commit();
+            assertEquals(3, index.size());
+            assertEquals(0, index.search("tidal", 0, 10).total());
+            assertEquals(3, index.search("energy", 0, 10).total());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.aiextractor.extractor.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvTest {
+
+    @Test
+    void roundTripsQuotesSeparatorsLineBreaksAndNulls() throws IOException {
+        List<String> first = Arrays.asList("1", "plain", "with, comma", "say \"hi\"", "two\nlines\r\nthree", null, "", "\\.");
+        List<String> second = Arrays.asList("2", null, null);
+        StringWriter out = new StringWriter();
+        Csv.writeRow(out, first);
+        Csv.writeRow(out, second);
+
+        assertEquals("1,plain,\"with, comma\",\"say \"\"hi\"\"\",\"two\nlines\r\nthree\",,\"\",\"\\.\"\n2,,\n", out.toString());
+        Csv.RecordReader reader = new Csv.RecordReader(new StringReader(out.toString()));
+        assertEquals(first, reader.next());
+        assertEquals(second, reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void readsCrlfLinesAndLastLineWithoutBreak() throws IOException {
+        Csv.RecordReader reader = new Csv.RecordReader(new StringReader("url,content\r\nhttp://a,x\r\nhttp://b,\"y\""));
+
+        assertEquals(List.of("url", "content"), reader.next());
+        assertEquals(List.of("http://a", "x"), reader.next());
+        assertEquals(List.of("http://b", "y"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() throws IOException {
+        Csv.RecordReader reader = new Csv.RecordReader(new StringReader("a,b\n\"open,c\n"));
+        reader.next();
+
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+}
@@ -0,0 +1,36 @@
+package com.aiextractor.extractor.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HostConcurrencyLimiterTest {
+
+    @Test
+    void capsPermitsPerHostAndForgetsIdleHosts() {
+        HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(2);
+        assertTrue(limiter.tryAcquire("a.example"));
+        assertTrue(limiter.tryAcquire("a.example"));
+        assertFalse(limiter.tryAcquire("a.example"));
+        assertTrue(limiter.tryAcquire("b.example"));
+        assertEquals(2, limiter.inFlight("a.example"));
+        assertEquals(2, limiter.trackedHosts());
+
+        limiter.release("b.example");
+        assertEquals(1, limiter.trackedHosts());
+        limiter.release("a.example");
+        limiter.release("a.example");
+        assertEquals(0, limiter.trackedHosts());
+        assertEquals(0, limiter.inFlight("a.example"));
+        assertTrue(limiter.tryAcquire("a.example"));
+    }
+
+    @Test
+    void rateLimiterForgetsHostsWhoseSlotHasPassed() throws InterruptedException {
+        HostRateLimiter limiter = new HostRateLimiter(1_000_000);
+        for (int i = 0; i < 3000; i++) limiter.acquire("host" + i + ".example");
+        assertTrue(limiter.trackedHosts() < 3000, "tracked " + limiter.trackedHosts());
+    }
+}
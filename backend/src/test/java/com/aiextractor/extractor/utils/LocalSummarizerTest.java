@@ -0,0 +1,144 @@
+package com.aiextractor.extractor.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LocalSummarizerTest {
+
+    @Test
+    void matchesOriginalSummarizerOnRandomTexts() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            String text = randomText(random);
+            assertEquals(Reference.summarizeLocally(text, 10), LocalSummarizer.summarize(text, 10), text);
+        }
+    }
+
+    @Test
+    void matchesOriginalKeyPointsOnRandomSummaries() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            String summary = randomText(random);
+            assertEquals(Reference.extractKeyPointsFromSummary(summary, 7), LocalSummarizer.keyPoints(summary, 7), summary);
+        }
+    }
+
+    @Test
+    void handlesEdgeCases() {
+        for (String text : List.of("", "   ", "Short.", "No terminal punctuation in this rather long sentence here",
+                "Unterminated lead sentence that is long enough\nThen another sentence follows here. And one more sentence to close it!",
+                "İstanbul İzmir Ankara are large cities in the country. The KELVIN sign ‪K looks like a letter here.",
+                "Duplicate sentence that repeats itself. Duplicate sentence that repeats itself. Something else entirely now!")) {
+            assertEquals(Reference.summarizeLocally(text, 10), LocalSummarizer.summarize(text, 10), text);
+        }
+    }
+
+    // Small vocabulary and short sentences so that score ties are frequent
+    private static String randomText(Random random) {
+        String[] words = {"the", "water", "city", "energy", "Policy", "growth", "data", "of", "research", "market", "model", "and",
+                "climate", "x", "ab", "report", "people", "Study", "results", "network", "co-op", "e.g.", "over", "_under_"};
+        String[] terminals = {".", ".", "!", "?", "", ";"};
+        String[] separators = {" ", " ", "  ", "\n", "\t", "\n\n"};
+        StringBuilder sb = new StringBuilder();
+        int sentences = random.nextInt(40);
+        for (int s = 0; s < sentences; s++) {
+            int length = 2 + random.nextInt(10);
+            for (int w = 0; w < length; w++) {
+                if (w > 0) sb.append(' ');
+                sb.append(words[random.nextInt(words.length)]);
+            }
+            sb.append(terminals[random.nextInt(terminals.length)]);
+            sb.append(separators[random.nextInt(separators.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The original SummarizationService implementation, kept verbatim as the reference output.
+     */
+    private static class Reference {
+        private static final Set<String> STOPWORDS = Set.of(
+                "the", "is", "in", "at", "of", "on", "and", "a", "to", "it", "for", "with", "as", "was", "were", "by", "an", "be", "this", "that", "from", "or", "are", "but", "not", "have", "has", "had", "they", "you", "we", "he", "she", "his", "her", "their", "our", "its", "which", "will", "would", "can", "could", "should", "may", "might", "do", "does", "did", "so", "if", "then", "than", "about", "into", "more", "other", "some", "any", "all", "no", "out", "up", "down", "over", "under", "again", "further", "once"
+        );
+
+        static List<String> extractKeyPointsFromSummary(String summary, int maxKeyPoints) {
+            List<String> sentences = splitIntoSentences(summary);
+            Map<String, Integer> wordFreq = getWordFrequencies(summary);
+            Map<String, Double> sentenceScores = new HashMap<>();
+            for (String sentence : sentences) {
+                double score = 0.0;
+                for (String word : tokenize(sentence)) {
+                    if (!STOPWORDS.contains(word)) {
+                        score += wordFreq.getOrDefault(word, 0);
+                    }
+                }
+                sentenceScores.put(sentence, score);
+            }
+            return sentenceScores.entrySet().stream()
+                    .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
+                    .map(Map.Entry::getKey)
+                    .filter(s -> s.length() > 20 && s.length() < 200)
+                    .distinct()
+                    .limit(maxKeyPoints)
+                    .collect(Collectors.toList());
+        }
+
+        static Map<String, Object> summarizeLocally(String text, int numSentences) {
+            List<String> sentences = splitIntoSentences(text);
+            if (sentences.isEmpty()) {
+                return Map.of("summary", "", "keyPoints", List.of());
+            }
+            Map<String, Integer> wordFreq = getWordFrequencies(text);
+            Map<String, Double> sentenceScores = new HashMap<>();
+            for (String sentence : sentences) {
+                double score = 0.0;
+                for (String word : tokenize(sentence)) {
+                    if (!STOPWORDS.contains(word)) {
+                        score += wordFreq.getOrDefault(word, 0);
+                    }
+                }
+                sentenceScores.put(sentence, score);
+            }
+            List<String> topSentences = sentenceScores.entrySet().stream()
+                    .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
+                    .limit(Math.max(numSentences, 10))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            StringBuilder summaryBuilder = new StringBuilder();
+            for (int i = 0; i < topSentences.size(); i++) {
+                summaryBuilder.append(topSentences.get(i)).append(" ");
+                if ((i + 1) % 3 == 0) summaryBuilder.append("\n\n");
+            }
+            String summary = summaryBuilder.toString().trim();
+            List<String> keyPoints = extractKeyPointsFromSummary(summary, 7);
+            return Map.of("summary", summary, "keyPoints", keyPoints);
+        }
+
+        static List<String> splitIntoSentences(String text) {
+            return Arrays.stream(text.split("(?<=[.!?])\\s+"))
+                    .map(String::trim)
+                    .filter(s -> s.length() > 20)
+                    .collect(Collectors.toList());
+        }
+
+        static List<String> tokenize(String text) {
+            return Arrays.stream(text.toLowerCase().split("\\W+"))
+                    .filter(w -> w.length() > 2)
+                    .collect(Collectors.toList());
+        }
+
+        static Map<String, Integer> getWordFrequencies(String text) {
+            Map<String, Integer> freq = new HashMap<>();
+            for (String word : tokenize(text)) {
+                if (!STOPWORDS.contains(word)) {
+                    freq.put(word, freq.getOrDefault(word, 0) + 1);
+                }
+            }
+            return freq;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.aiextractor.extractor.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SentenceChunkerTest {
+
+    @Test
+    void endsChunksAtSentenceBoundaries() {
+        List<String> chunks = chunks("First sentence here. Second one is here! Third? Fourth sentence follows.", 45);
+
+        assertEquals(List.of("First sentence here. Second one is here!", "Third? Fourth sentence follows."), chunks);
+    }
+
+    @Test
+    void splitsOverlongSentencesAtWhitespaceAndCoversAllText() {
+        String text = "word ".repeat(100) + "end.";
+        List<String> chunks = chunks(text, 42);
+
+        assertTrue(chunks.stream().allMatch(c -> c.length() <= 42));
+        assertEquals(text.replace(" ", ""), String.join("", chunks).replace(" ", ""));
+    }
+
+    private static List<String> chunks(String text, int maxChars) {
+        List<String> chunks = new ArrayList<>();
+        new SentenceChunker(text, maxChars).forEachRemaining(chunks::add);
+        return chunks;
+    }
+}
@@ -0,0 +1,66 @@
+package com.aiextractor.extractor.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimHashIndexTest {
+    private static final String[] WORDS = ("reservoir levels fell again this summer as the region recorded its driest "
+            + "season council officials said water restrictions would stay in place until autumn rainfall farmers "
+            + "reported lower yields while engineers began surveying the dam for repairs").split(" ");
+
+    @Test
+    void findsLightlyEditedCopyAmongUnrelatedArticles() {
+        SimHashIndex index = new SimHashIndex(3);
+        Random random = new Random(7);
+        String original = article(random);
+        index.put(1, SimHash.fingerprint(original));
+        for (long id = 2; id <= 1000; id++) {
+            index.put(id, SimHash.fingerprint(article(random)));
+        }
+        // Syndicated copy: different casing and punctuation, a new byline, one sentence reworded
+        String copy = "By Staff Reporter. " + original.toUpperCase().replace(" water ", ", water, ")
+                .replaceFirst("RESERVOIR LEVELS FELL", "RESERVOIR LEVELS DROPPED");
+
+        SimHashIndex.Match match = index.nearest(SimHash.fingerprint(copy));
+
+        assertNotNull(match);
+        assertEquals(1, match.id());
+        assertTrue(match.distance() <= 3);
+        assertNull(index.nearest(SimHash.fingerprint(article(random))));
+    }
+
+    @Test
+    void replacesAndRemovesDocuments() {
+        SimHashIndex index = new SimHashIndex(3);
+        Random random = new Random(11);
+        String first = article(random);
+        String second = article(random);
+        index.put(1, SimHash.fingerprint(first));
+        index.put(1, SimHash.fingerprint(second));
+
+        assertEquals(1, index.size());
+        assertNull(index.nearest(SimHash.fingerprint(first)));
+        assertEquals(new SimHashIndex.Match(1, 0), index.nearest(SimHash.fingerprint(second)));
+
+        index.remove(1);
+        assertEquals(0, index.size());
+        assertNull(index.nearest(SimHash.fingerprint(second)));
+    }
+
+    // ~4 KB of random sentences over a small vocabulary, so unrelated articles share many words
+    private static String article(Random random) {
+        StringBuilder sb = new StringBuilder(4200);
+        while (sb.length() < 4000) {
+            for (int i = 0; i < 12; i++) sb.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            sb.setCharAt(sb.length() - 1, '.');
+            sb.append(' ');
+        }
+        return sb.toString();
+    }
+}